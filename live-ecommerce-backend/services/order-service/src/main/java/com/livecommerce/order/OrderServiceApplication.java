@@ -1,11 +1,16 @@
 package com.livecommerce.order;
 
+import com.livecommerce.order.client.ProductLoadBalancerConfiguration;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClient;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableFeignClients
+@LoadBalancerClient(name = "product-service", configuration = ProductLoadBalancerConfiguration.class)
+@EnableScheduling
 public class OrderServiceApplication {
 
 	public static void main(String[] args) {
@@ -1,25 +1,101 @@
 package com.livecommerce.order.client;
 
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import java.math.BigDecimal;
-@FeignClient(name = "product-service", url = "http://localhost:8082")
+import java.time.LocalDateTime;
+import java.util.List;
+@FeignClient(name = "product-service", configuration = ProductClientConfiguration.class)
 public interface ProductClient {
 
     @GetMapping("/api/products/{id}")
     ProductDto getProductById(@PathVariable("id") Long id);
 
+    // Found products come back in request order, unknown ids in missingIds
+    @GetMapping("/api/products")
+    ProductBatch getProductsByIds(@RequestParam("ids") List<Long> ids);
+
+    // Same lookup with the ids in the body, for sets too long for a URL
+    @PostMapping("/api/products/batch")
+    ProductBatch getProductsByIdsPost(@RequestBody List<Long> ids);
+
     @PutMapping("/api/products/{productId}/reduce-stock")
     void reduceStock(@PathVariable("productId") Long productId,
                      @RequestParam Integer quantity);
 
+    // All lines are reserved in one transaction, a 409 means nothing was reserved
+    @PostMapping("/api/products/stock/reservations")
+    StockReservationResult reserveStock(@RequestBody List<StockReservationLine> lines);
+
+    // Like reserveStock, but the stock comes back on its own unless the hold is confirmed in time
+    @PostMapping("/api/products/stock/holds")
+    StockHoldResult placeHold(@RequestBody StockHoldRequest request);
+
+    // 409 when the hold already expired or was released
+    @PostMapping("/api/products/stock/holds/{holdId}/confirm")
+    void confirmHold(@PathVariable("holdId") String holdId);
+
+    @DeleteMapping("/api/products/stock/holds/{holdId}")
+    void releaseHold(@PathVariable("holdId") String holdId);
+
     class ProductDto {
         public Long id;
         public String name;
         public BigDecimal price;
         public Integer stock;
     }
-}
\ No newline at end of file
+
+    class ProductBatch {
+        public List<ProductDto> products;
+        public List<Long> missingIds;
+    }
+
+    class StockReservationLine {
+        public Long productId;
+        public Integer quantity;
+
+        public StockReservationLine() {
+        }
+
+        public StockReservationLine(Long productId, Integer quantity) {
+            this.productId = productId;
+            this.quantity = quantity;
+        }
+    }
+
+    class StockReservationResult {
+        public boolean reserved;
+        public List<StockReservationLineResult> lines;
+    }
+
+    class StockHoldRequest {
+        public List<StockReservationLine> lines;
+        public Integer ttlSeconds;
+
+        public StockHoldRequest() {
+        }
+
+        public StockHoldRequest(List<StockReservationLine> lines) {
+            this.lines = lines;
+        }
+    }
+
+    class StockHoldResult {
+        public String holdId;
+        public LocalDateTime expiresAt;
+        public boolean reserved;
+        public List<StockReservationLineResult> lines;
+    }
+
+    class StockReservationLineResult {
+        public Long productId;
+        public Integer quantity;
+        public String status;
+    }
+}
@@ -0,0 +1,50 @@
+package com.livecommerce.order.client;
+
+import feign.Client;
+import feign.http2client.Http2Client;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.cloud.openfeign.loadbalancer.FeignBlockingLoadBalancerClient;
+import org.springframework.cloud.openfeign.loadbalancer.LoadBalancerFeignRequestTransformer;
+import org.springframework.context.annotation.Bean;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+// Feign configuration of ProductClient only (referenced from @FeignClient, deliberately not a @Configuration)
+// The services build separately and share no library, so this package is copied on purpose: ResilientFeignClient,
+// RetryBudget and LastKnownInstancesSupplier are kept identical to the ones in
+// reservation-service; only the property prefix (order.product-client) and the package differ. Change both copies together
+public class ProductClientConfiguration {
+
+    // java.net.http keeps connections alive and pools them, and talks HTTP/2 (h2c) where the server offers it.
+    // A custom Client replaces the load-balanced default, so it is wrapped in FeignBlockingLoadBalancerClient here;
+    // every attempt (retries and hedges too) resolves product-service through discovery
+    @Bean
+    public Client feignClient(MeterRegistry meterRegistry,
+                              LoadBalancerClient loadBalancerClient,
+                              LoadBalancerClientFactory loadBalancerClientFactory,
+                              ObjectProvider<LoadBalancerFeignRequestTransformer> transformers,
+                              @Value("${spring.cloud.openfeign.client.config.product-service.connect-timeout:500}") long connectTimeoutMs,
+                              @Value("${order.product-client.deadline-ms:2000}") long deadlineMs,
+                              @Value("${order.product-client.max-attempts:3}") int maxAttempts,
+                              @Value("${order.product-client.hedge-delay-ms:75}") long hedgeDelayMs,
+                              @Value("${order.product-client.backoff-ms:25}") long backoffMs,
+                              @Value("${order.product-client.retry-budget-percent:10}") int retryBudgetPercent) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                // Same connect timeout and redirect policy as the Feign options, so Http2Client uses this client as is
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .followRedirects(HttpClient.Redirect.ALWAYS)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        Client loadBalanced = new FeignBlockingLoadBalancerClient(new Http2Client(httpClient),
+                loadBalancerClient, loadBalancerClientFactory, transformers.orderedStream().toList());
+        return new ResilientFeignClient(loadBalanced, meterRegistry, "product-service",
+                deadlineMs, maxAttempts, hedgeDelayMs, backoffMs, new RetryBudget(retryBudgetPercent, 20));
+    }
+}
@@ -0,0 +1,26 @@
+package com.livecommerce.order.client;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+
+import java.net.URI;
+import java.util.List;
+
+// Load balancer configuration of product-service only (referenced from @LoadBalancerClient, deliberately not a @Configuration)
+// product-service runs as a single instance (it refuses to start a second one), so the default round robin
+// balancer is kept; discovery is only here to find that instance and to ride out a registry outage
+public class ProductLoadBalancerConfiguration {
+
+    // Eureka -> last known instances -> cached for spring.cloud.loadbalancer.cache.ttl
+    @Bean
+    public ServiceInstanceListSupplier productInstanceSupplier(ConfigurableApplicationContext context,
+                                                              @Value("${order.product-client.fallback-urls:}") List<URI> fallbackUrls) {
+        return ServiceInstanceListSupplier.builder()
+                .withBlockingDiscoveryClient()
+                .with((ctx, delegate) -> new LastKnownInstancesSupplier(delegate, fallbackUrls))
+                .withCaching()
+                .build(context);
+    }
+}
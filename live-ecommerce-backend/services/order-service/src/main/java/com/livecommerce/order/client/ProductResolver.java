@@ -0,0 +1,114 @@
+package com.livecommerce.order.client;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Fetches the products of a cart from product-service through the batch endpoint.
+ * Large carts are split into chunks of batchSize ids, fetched concurrently on virtual threads,
+ * at most maxParallel at a time. The whole lookup has one deadline, however many chunks it
+ * takes; whatever is still running when it passes is cancelled. Any unknown id fails the lookup.
+ */
+@Component
+public class ProductResolver {
+
+    private final ProductClient productClient;
+    private final int maxParallel;
+    private final int batchSize;
+    private final long deadlineNanos;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ProductResolver(ProductClient productClient,
+                           @Value("${order.product-lookup.max-parallel:16}") int maxParallel,
+                           @Value("${order.product-lookup.batch-size:100}") int batchSize,
+                           @Value("${order.product-lookup.deadline-ms:3000}") long deadlineMs) {
+        this.productClient = productClient;
+        this.maxParallel = Math.max(1, maxParallel);
+        this.batchSize = Math.max(1, batchSize);
+        this.deadlineNanos = TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+    }
+
+    // productId -> product, in the order the ids were given; duplicates are fetched once
+    public Map<Long, ProductClient.ProductDto> resolve(Collection<Long> productIds) {
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(productIds));
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            chunks.add(ids.subList(from, Math.min(ids.size(), from + batchSize)));
+        }
+
+        // Even a single chunk goes through the executor, so the deadline covers it too
+        List<ProductClient.ProductBatch> batches = fetchConcurrently(chunks);
+
+        Map<Long, ProductClient.ProductDto> found = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (ProductClient.ProductBatch batch : batches) {
+            batch.products.forEach(product -> found.put(product.id, product));
+            missing.addAll(batch.missingIds);
+        }
+        if (!missing.isEmpty()) {
+            throw new RuntimeException("Product not found: " + missing);
+        }
+
+        Map<Long, ProductClient.ProductDto> products = new LinkedHashMap<>();
+        ids.forEach(id -> products.put(id, found.get(id)));
+        return products;
+    }
+
+    private List<ProductClient.ProductBatch> fetchConcurrently(List<List<Long>> chunks) {
+        long deadline = System.nanoTime() + deadlineNanos;
+        Semaphore permits = new Semaphore(maxParallel);
+        List<Future<ProductClient.ProductBatch>> futures = new ArrayList<>(chunks.size());
+        for (List<Long> chunk : chunks) {
+            futures.add(executor.submit(() -> {
+                permits.acquire();
+                try {
+                    return productClient.getProductsByIds(chunk);
+                } finally {
+                    permits.release();
+                }
+            }));
+        }
+
+        try {
+            List<ProductClient.ProductBatch> batches = new ArrayList<>(chunks.size());
+            for (Future<ProductClient.ProductBatch> future : futures) {
+                long remaining = deadline - System.nanoTime();
+                batches.add(future.get(Math.max(0, remaining), TimeUnit.NANOSECONDS));
+            }
+            return batches;
+        } catch (TimeoutException e) {
+            throw new RuntimeException("Product lookup timed out for " + chunks.size() + " batches");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException("Product lookup failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Product lookup interrupted");
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,218 @@
+package com.livecommerce.order.client;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.http.HttpConnectTimeoutException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Feign transport for calls to product-service, wrapped around a pooled HTTP client.
+ * - One deadline per call: no attempt starts after it and each attempt's read timeout is cut
+ *   to what is left of it; connect and read timeouts per attempt come from the Feign options.
+ * - Retries (with backoff) for GETs that failed or got 502/503/504, and for any request whose
+ *   connection could not even be opened; all of them paid from a RetryBudget.
+ * - Hedging for GETs: if the first attempt has not answered after hedgeDelay, a second one is
+ *   sent and whichever answers first wins; the loser's response is closed.
+ * - Per-method latency timers (with percentile histograms) as seen by the caller, plus retry
+ *   and hedge counters.
+ */
+public class ResilientFeignClient implements Client {
+
+    private static final Set<String> IDEMPOTENT = Set.of("GET", "HEAD");
+    private static final Set<Integer> RETRYABLE_STATUS = Set.of(502, 503, 504);
+
+    private final Client delegate;
+    private final MeterRegistry meterRegistry;
+    private final String name;
+    private final long deadlineNanos;
+    private final int maxAttempts;
+    private final long hedgeDelayNanos;
+    private final long backoffMillis;
+    private final RetryBudget retryBudget;
+    private final Counter retries;
+    private final Counter hedges;
+    // One timer per "method status", built on first use
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ResilientFeignClient(Client delegate,
+                                MeterRegistry meterRegistry,
+                                String name,
+                                long deadlineMs,
+                                int maxAttempts,
+                                long hedgeDelayMs,
+                                long backoffMs,
+                                RetryBudget retryBudget) {
+        this.delegate = delegate;
+        this.meterRegistry = meterRegistry;
+        this.name = name;
+        this.deadlineNanos = TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        // 0 turns hedging off
+        this.hedgeDelayNanos = TimeUnit.MILLISECONDS.toNanos(hedgeDelayMs);
+        this.backoffMillis = backoffMs;
+        this.retryBudget = retryBudget;
+        this.retries = Counter.builder("http.client.feign.retries").tag("client", name).register(meterRegistry);
+        this.hedges = Counter.builder("http.client.feign.hedges").tag("client", name).register(meterRegistry);
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        long started = System.nanoTime();
+        String outcome = "IO_ERROR";
+        try {
+            Response response = executeWithRetries(request, options, started + deadlineNanos);
+            outcome = String.valueOf(response.status());
+            return response;
+        } finally {
+            timer(method(request), outcome).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(String method, String outcome) {
+        return timers.computeIfAbsent(method + " " + outcome, key -> Timer.builder("http.client.feign.requests")
+                .tag("client", name)
+                .tag("method", method)
+                .tag("status", outcome)
+                .publishPercentileHistogram()
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry));
+    }
+
+    private Response executeWithRetries(Request request, Request.Options options, long deadline) throws IOException {
+        boolean idempotent = IDEMPOTENT.contains(request.httpMethod().name());
+        retryBudget.deposit();
+        for (int attempt = 1; ; attempt++) {
+            Request.Options attemptOptions = withinDeadline(options, deadline);
+            Response response;
+            try {
+                response = idempotent && hedgeDelayNanos > 0
+                        ? hedged(request, attemptOptions, deadline)
+                        : delegate.execute(request, attemptOptions);
+            } catch (IOException e) {
+                if (attempt < maxAttempts && (idempotent || neverSent(e)) && canRetry(deadline)) {
+                    backoff(attempt);
+                    continue;
+                }
+                throw e;
+            }
+            if (idempotent && RETRYABLE_STATUS.contains(response.status()) && attempt < maxAttempts && canRetry(deadline)) {
+                response.close();
+                backoff(attempt);
+                continue;
+            }
+            return response;
+        }
+    }
+
+    // First answer wins; a second attempt only goes out when the first is slow
+    private Response hedged(Request request, Request.Options options, long deadline) throws IOException {
+        CompletableFuture<Response> result = new CompletableFuture<>();
+        AtomicInteger running = new AtomicInteger(1);
+        launch(request, options, result, running);
+        try {
+            return result.get(hedgeDelayNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException slow) {
+            if (deadline - System.nanoTime() > 0 && retryBudget.tryWithdraw()) {
+                running.incrementAndGet();
+                hedges.increment();
+                launch(request, options, result, running);
+            }
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted calling " + request.url());
+        }
+        try {
+            return result.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // Whatever still arrives is closed by launch()
+            result.cancel(false);
+            throw new IOException("Deadline exceeded calling " + request.url());
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted calling " + request.url());
+        }
+    }
+
+    private void launch(Request request, Request.Options options, CompletableFuture<Response> result, AtomicInteger running) {
+        executor.execute(() -> {
+            try {
+                Response response = delegate.execute(request, options);
+                if (!result.complete(response)) {
+                    response.close();
+                }
+            } catch (Throwable e) {
+                // Fail the call only when no other attempt can still answer
+                if (running.decrementAndGet() == 0) {
+                    result.completeExceptionally(e);
+                }
+            }
+        });
+    }
+
+    private boolean canRetry(long deadline) {
+        if (deadline - System.nanoTime() <= 0 || !retryBudget.tryWithdraw()) {
+            return false;
+        }
+        retries.increment();
+        return true;
+    }
+
+    private void backoff(int attempt) throws InterruptedIOException {
+        try {
+            // Linear backoff with jitter so retries of many callers do not line up
+            Thread.sleep(backoffMillis * attempt + (long) (Math.random() * backoffMillis));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted during retry backoff");
+        }
+    }
+
+    private static Request.Options withinDeadline(Request.Options options, long deadline) throws IOException {
+        long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+        if (remainingMillis <= 0) {
+            throw new IOException("Deadline exceeded");
+        }
+        // Connect timeout stays as configured: Http2Client keeps a separate HttpClient per connect timeout
+        return new Request.Options(
+                options.connectTimeoutMillis(), TimeUnit.MILLISECONDS,
+                Math.min(options.readTimeoutMillis(), remainingMillis), TimeUnit.MILLISECONDS,
+                options.isFollowRedirects());
+    }
+
+    // The request never reached product-service, so even a POST is safe to send again
+    private static boolean neverSent(IOException e) {
+        return e instanceof ConnectException || e instanceof HttpConnectTimeoutException;
+    }
+
+    private static IOException unwrap(ExecutionException e) {
+        return e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+    }
+
+    private static String method(Request request) {
+        return request.requestTemplate() != null && request.requestTemplate().methodMetadata() != null
+                ? request.requestTemplate().methodMetadata().configKey()
+                : request.httpMethod().name();
+    }
+}
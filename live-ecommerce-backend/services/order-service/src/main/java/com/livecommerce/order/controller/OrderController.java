@@ -2,28 +2,123 @@ package com.livecommerce.order.controller;
 
 import com.livecommerce.order.domain.Order;
 import com.livecommerce.order.domain.OrderStatus;
+import com.livecommerce.order.idempotency.OrderIdempotency;
+import com.livecommerce.order.intake.OrderIntake;
+import com.livecommerce.order.intake.OrderIntakeState;
+import com.livecommerce.order.intake.OrderIntakeStatus;
+import com.livecommerce.order.request.OrderCursor;
+import com.livecommerce.order.request.OrderStatusChange;
+import com.livecommerce.order.response.BulkStatusResult;
+import com.livecommerce.order.response.OrderSummary;
 import com.livecommerce.order.service.OrderService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import java.net.URI;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
 
 @RestController
 @RequestMapping("/api/orders")
 @RequiredArgsConstructor
 public class OrderController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_BULK_CHANGES = 10_000;
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
     private final OrderService orderService;
+    private final OrderIntake orderIntake;
+    private final OrderIdempotency orderIdempotency;
 
+    // Async intake on ho to 202 + status URL, order background me save hota hai.
+    // Idempotency-Key ke saath retry karo to wahi order wapas milta hai, naya order nahi banta
     @PostMapping
-    public ResponseEntity<Order> createOrder(@RequestBody Order order) {
-        return ResponseEntity.ok(orderService.createOrder(order));
+    public ResponseEntity<?> createOrder(@RequestBody Order order,
+                                         @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        if (idempotencyKey == null) {
+            if (!orderIntake.isAsync()) {
+                return ResponseEntity.ok(orderService.createOrder(order));
+            }
+            return orderIntake.submit(order)
+                    .<ResponseEntity<?>>map(orderId -> accepted(orderId, false))
+                    .orElseGet(() -> ResponseEntity
+                            .status(HttpStatus.SERVICE_UNAVAILABLE)
+                            .header(HttpHeaders.RETRY_AFTER, "1")
+                            .build());
+        }
+
+        AtomicReference<Order> created = new AtomicReference<>();
+        OrderIdempotency.Outcome outcome = orderIdempotency.execute(idempotencyKey, OrderIdempotency.fingerprint(order), () -> {
+            if (orderIntake.isAsync()) {
+                // Rejected later (stock, product-service down, save failed): the key is given up again
+                return orderIntake.submit(order, orderId -> orderIdempotency.forget(idempotencyKey, orderId)).orElseThrow(() ->
+                        new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Order intake is full, retry with the same key"));
+            }
+            created.set(orderService.createOrder(order));
+            return created.get().getId();
+        });
+        if (orderIntake.isAsync()) {
+            return accepted(outcome.orderId(), outcome.replayed());
+        }
+        return ResponseEntity.ok()
+                .header(IDEMPOTENT_REPLAYED, String.valueOf(outcome.replayed()))
+                .body(outcome.replayed() ? orderService.getOrderById(outcome.orderId()) : created.get());
     }
 
+    // QUEUED -> CREATED or REJECTED (with reason)
+    @GetMapping("/{orderId}/intake")
+    public ResponseEntity<OrderIntakeStatus> getIntakeStatus(@PathVariable UUID orderId) {
+        return orderIntake.status(orderId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    // Order history, newest first, one keyset page at a time; summary=true skips the items.
+    // Next page cursor X-Next-Cursor aur Link rel="next" header me aata hai
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Order>> getOrdersByUser(@PathVariable String userId) {
-        return ResponseEntity.ok(orderService.getOrdersByUser(userId));
+    public ResponseEntity<?> getOrdersByUser(
+            @PathVariable String userId,
+            @RequestParam(required = false) String before,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "false") boolean summary
+    ) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        OrderCursor cursor = before != null ? OrderCursor.parse(before) : null;
+        List<?> page;
+        OrderCursor last = null;
+        if (summary) {
+            List<OrderSummary> summaries = orderService.getOrderSummariesByUser(userId, cursor, pageSize);
+            if (!summaries.isEmpty()) {
+                OrderSummary tail = summaries.get(summaries.size() - 1);
+                last = new OrderCursor(tail.getCreatedAt(), tail.getId());
+            }
+            page = summaries;
+        } else {
+            List<Order> orders = orderService.getOrdersByUser(userId, cursor, pageSize);
+            if (!orders.isEmpty()) {
+                Order tail = orders.get(orders.size() - 1);
+                last = new OrderCursor(tail.getCreatedAt(), tail.getId());
+            }
+            page = orders;
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.size() == pageSize) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("before", last)
+                    .replaceQueryParam("limit", pageSize)
+                    .toUriString();
+            response.header("X-Next-Cursor", last.toString())
+                    .header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(page);
     }
 
     @GetMapping("/{orderId}")
@@ -36,4 +131,25 @@ public class OrderController {
                                                    @RequestParam OrderStatus status) {
         return ResponseEntity.ok(orderService.updateOrderStatus(orderId, status));
     }
-}
\ No newline at end of file
+
+    // Fulfilment ke liye: hazaaron orders ek call me SHIPPED / DELIVERED, one UPDATE per target status
+    @PostMapping("/status/bulk")
+    public ResponseEntity<BulkStatusResult> updateOrderStatuses(@RequestBody List<OrderStatusChange> changes) {
+        if (changes.size() > MAX_BULK_CHANGES) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + MAX_BULK_CHANGES + " status changes per call");
+        }
+        return ResponseEntity.ok(orderService.updateOrderStatuses(changes));
+    }
+
+    // Rejected orders give their key up, so a replay is for an order that is queued or created.
+    // Not known here yet means another instance queued it
+    private ResponseEntity<?> accepted(UUID orderId, boolean replayed) {
+        OrderIntakeStatus status = replayed
+                ? orderIntake.status(orderId).orElse(new OrderIntakeStatus(orderId, OrderIntakeState.QUEUED, null))
+                : new OrderIntakeStatus(orderId, OrderIntakeState.QUEUED, null);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/orders/" + orderId + "/intake"))
+                .header(IDEMPOTENT_REPLAYED, String.valueOf(replayed))
+                .body(status);
+    }
+}
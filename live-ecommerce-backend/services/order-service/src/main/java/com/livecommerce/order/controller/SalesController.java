@@ -0,0 +1,67 @@
+package com.livecommerce.order.controller;
+
+import com.livecommerce.order.response.ProductSales;
+import com.livecommerce.order.response.SalesBucket;
+import com.livecommerce.order.sales.SalesReports;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+// Seller dashboard numbers, from the hourly sales aggregate (not from orders)
+@RestController
+@RequestMapping("/api/orders/sales")
+@RequiredArgsConstructor
+public class SalesController {
+
+    private static final int MAX_TOP = 100;
+
+    private final SalesReports salesReports;
+
+    // Top N products in a range (default: last 24 hours), by=revenue|units
+    @GetMapping("/top")
+    public ResponseEntity<List<ProductSales>> getTopProducts(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to,
+            @RequestParam(defaultValue = "revenue") String by,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        OffsetDateTime end = to != null ? to : OffsetDateTime.now();
+        OffsetDateTime start = from != null ? from : end.minusHours(24);
+        SalesReports.Ranking ranking = option(SalesReports.Ranking.class, "by", by);
+        return ResponseEntity.ok(salesReports.topProducts(start, end, ranking, Math.max(1, Math.min(limit, MAX_TOP))));
+    }
+
+    // Hourly or daily totals in a range (default: last 24 hours), for one product or all of them
+    @GetMapping("/timeline")
+    public ResponseEntity<List<SalesBucket>> getTimeline(
+            @RequestParam(required = false) Long productId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to,
+            @RequestParam(defaultValue = "hour") String granularity
+    ) {
+        OffsetDateTime end = to != null ? to : OffsetDateTime.now();
+        OffsetDateTime start = from != null ? from : end.minusHours(24);
+        SalesReports.Granularity bucket = option(SalesReports.Granularity.class, "granularity", granularity);
+        return ResponseEntity.ok(salesReports.timeline(productId, start, end, bucket));
+    }
+
+    // Unknown values are the caller's mistake, not a 500
+    private static <E extends Enum<E>> E option(Class<E> type, String name, String value) {
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            String allowed = Arrays.stream(type.getEnumConstants())
+                    .map(option -> option.name().toLowerCase(Locale.ROOT))
+                    .collect(Collectors.joining("|"));
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, name + " must be one of " + allowed);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.livecommerce.order.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+// Durable side of the Idempotency-Key store: which order a key produced, and for which request body
+@Entity
+@Table(name = "idempotency_keys",
+        indexes = @Index(name = "ix_idempotency_keys_expires", columnList = "expires_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyRecord {
+
+  @Id
+  @Column(name = "idempotency_key", length = 255)
+  private String key;
+
+  // SHA-256 of the request, hex
+  @Column(length = 64, nullable = false)
+  private String fingerprint;
+
+  @Enumerated(EnumType.STRING)
+  @Column(length = 16, nullable = false)
+  private IdempotencyStatus status;
+
+  // Set once the first request has produced its order
+  @Column(name = "order_id")
+  private UUID orderId;
+
+  @Column(name = "created_at", nullable = false)
+  private OffsetDateTime createdAt;
+
+  @Column(name = "expires_at", nullable = false)
+  private OffsetDateTime expiresAt;
+}
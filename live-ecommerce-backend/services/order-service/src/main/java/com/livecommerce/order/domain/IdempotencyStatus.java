@@ -0,0 +1,6 @@
+package com.livecommerce.order.domain;
+
+public enum IdempotencyStatus {
+  IN_PROGRESS,
+  COMPLETED
+}
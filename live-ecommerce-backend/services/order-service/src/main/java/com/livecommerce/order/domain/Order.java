@@ -1,14 +1,19 @@
 package com.livecommerce.order.domain;
 
+import com.livecommerce.order.id.TimeOrderedId;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders",
+        // Order history pages walk this index; InnoDB appends the id, which is the keyset tie-break
+        indexes = @Index(name = "ix_orders_user_created", columnList = "user_id, created_at"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -16,9 +21,10 @@ import java.util.UUID;
 public class Order {
 
   @Id
-  @GeneratedValue
+  @TimeOrderedId
   private UUID id;
 
+  @Column(name = "user_id")
   private String userId;
 
   private BigDecimal totalAmount;
@@ -26,11 +32,23 @@ public class Order {
   @Enumerated(EnumType.STRING)
   private OrderStatus status; // CREATED, PAID, SHIPPED, DELIVERED
 
+  @Column(name = "created_at")
   private OffsetDateTime createdAt;
 
   private OffsetDateTime updatedAt;
 
-  @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+  // Product-service stock hold backing this order until it is paid
+  private String stockHoldId;
+
+  // Optimistic lock; the default fills rows that existed before the column
+  @Version
+  @ColumnDefault("0")
+  @Column(nullable = false)
+  private Long version;
+
+  // Lazy: history pages join fetch the items of a whole page at once, or skip them in summary mode
+  @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
   @JoinColumn(name = "order_id")
+  @BatchSize(size = 50)
   private List<OrderItem> items;
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.livecommerce.order.domain;
 
+import com.livecommerce.order.id.TimeOrderedId;
 import jakarta.persistence.*;
 import lombok.*;
 import java.math.BigDecimal;
@@ -15,7 +16,7 @@ import java.util.UUID;
 public class OrderItem {
 
     @Id
-    @GeneratedValue
+    @TimeOrderedId
     private UUID id;
     private Long productId;
     private String productName;
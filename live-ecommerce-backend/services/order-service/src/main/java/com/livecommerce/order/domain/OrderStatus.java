@@ -1,8 +1,21 @@
 package com.livecommerce.order.domain;
 
+import java.util.EnumSet;
+import java.util.Set;
+
+// CREATED -> PAID -> SHIPPED -> DELIVERED, one step at a time
 public enum OrderStatus {
   CREATED,
   PAID,
   SHIPPED,
-  DELIVERED
-}
\ No newline at end of file
+  DELIVERED;
+
+  public boolean canMoveTo(OrderStatus next) {
+    return next != null && next.ordinal() == ordinal() + 1;
+  }
+
+  // Statuses an order may be in to move to this one
+  public Set<OrderStatus> sources() {
+    return this == CREATED ? EnumSet.noneOf(OrderStatus.class) : EnumSet.of(values()[ordinal() - 1]);
+  }
+}
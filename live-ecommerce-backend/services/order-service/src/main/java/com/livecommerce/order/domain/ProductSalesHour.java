@@ -0,0 +1,31 @@
+package com.livecommerce.order.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.math.BigDecimal;
+
+// Sales read model: one row per product and hour, kept up to date by SalesAccumulator
+@Entity
+@Table(name = "product_sales_hourly",
+        indexes = @Index(name = "ix_product_sales_hourly_hour", columnList = "bucket_hour"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductSalesHour {
+
+  @EmbeddedId
+  private ProductSalesHourId id;
+
+  @Column(name = "ordered_units", nullable = false)
+  private Long orderedUnits;
+
+  @Column(name = "ordered_revenue", nullable = false, precision = 19, scale = 2)
+  private BigDecimal orderedRevenue;
+
+  @Column(name = "paid_units", nullable = false)
+  private Long paidUnits;
+
+  @Column(name = "paid_revenue", nullable = false, precision = 19, scale = 2)
+  private BigDecimal paidRevenue;
+}
@@ -0,0 +1,19 @@
+package com.livecommerce.order.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.io.Serializable;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSalesHourId implements Serializable {
+
+  @Column(name = "product_id")
+  private Long productId;
+
+  // Hours since the epoch (UTC)
+  @Column(name = "bucket_hour")
+  private Long hour;
+}
@@ -0,0 +1,40 @@
+package com.livecommerce.order.id;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * UUIDv7-style ids: 48 bits of Unix millis, the version nibble, a 12-bit sequence, the
+ * variant and 62 random bits. Stored as BINARY(16) (most significant byte first) they sort
+ * by creation time, so new orders and items are appended at the right edge of InnoDB's
+ * clustered index instead of splitting pages all over it.
+ * Lock-free: one AtomicLong holds (millis << 12 | sequence) and every call moves it forward
+ * by CAS, so ids from this JVM are strictly increasing. Past 4096 ids in one millisecond the
+ * sequence carries into the next millisecond rather than repeating.
+ *
+ * Existing random (v4) ids stay valid and are left as they are: they are order numbers
+ * clients already hold, and the column type does not change. See db/uuidv7-order-ids.sql.
+ */
+public final class TimeOrderedUuids {
+
+    private static final AtomicLong LAST = new AtomicLong();
+
+    private TimeOrderedUuids() {
+    }
+
+    public static UUID next() {
+        long now = System.currentTimeMillis() << 12;
+        long stamp = LAST.accumulateAndGet(now, (last, current) -> Math.max(current, last + 1));
+        long millis = stamp >>> 12;
+        long sequence = stamp & 0xFFF;
+        long msb = (millis << 16) | 0x7000L | sequence;
+        long lsb = (ThreadLocalRandom.current().nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+
+    // Creation time carried in a v7 id
+    public static long epochMillis(UUID id) {
+        return id.getMostSignificantBits() >>> 16;
+    }
+}
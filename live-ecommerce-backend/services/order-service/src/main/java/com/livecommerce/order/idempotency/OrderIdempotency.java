@@ -0,0 +1,215 @@
+package com.livecommerce.order.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.livecommerce.order.domain.IdempotencyRecord;
+import com.livecommerce.order.domain.IdempotencyStatus;
+import com.livecommerce.order.domain.Order;
+import com.livecommerce.order.domain.OrderItem;
+import com.livecommerce.order.repository.IdempotencyRecordRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key handling for order creation.
+ * The first request with a key runs; every later one with the same key gets the same order id
+ * back. Keys live in a bounded Caffeine cache (TTL-evicted) in front of the idempotency_keys
+ * table. Inside one instance a duplicate that arrives while the first is still running waits
+ * on the first one's future; across instances the first claims the key with an INSERT and
+ * the others poll the row. A request that fails gives its key up again, so a retry runs anew;
+ * that includes an async order the intake rejects after the key was completed (see forget).
+ * Reusing a key with a different cart is rejected with 422.
+ */
+@Slf4j
+@Component
+public class OrderIdempotency {
+
+    public record Outcome(UUID orderId, boolean replayed) {
+    }
+
+    // First request with a key, and the order id it will produce
+    private record Attempt(String fingerprint, CompletableFuture<UUID> result) {
+    }
+
+    private static final long POLL_MILLIS = 50;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final Duration ttl;
+    private final long waitMillis;
+    private final Duration abandonAfter;
+    private final Cache<String, Attempt> attempts;
+
+    public OrderIdempotency(IdempotencyRecordRepository idempotencyRecordRepository,
+                            @Value("${order.idempotency.ttl-hours:24}") long ttlHours,
+                            @Value("${order.idempotency.max-keys:100000}") long maxKeys,
+                            @Value("${order.idempotency.wait-ms:10000}") long waitMillis) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.waitMillis = waitMillis;
+        // A claim nobody finished in this long belongs to a request (or instance) that died
+        this.abandonAfter = Duration.ofMillis(waitMillis * 3);
+        this.attempts = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    // Same user and cart -> same fingerprint; item order matters like it does for the order itself
+    public static String fingerprint(Order order) {
+        StringBuilder request = new StringBuilder(String.valueOf(order.getUserId()));
+        if (order.getItems() != null) {
+            for (OrderItem item : order.getItems()) {
+                request.append('|').append(item.getProductId()).append(':').append(item.getQuantity());
+            }
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(request.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // action creates the order and returns its id; it runs at most once per key
+    public Outcome execute(String key, String fingerprint, Supplier<UUID> action) {
+        if (key.isBlank() || key.length() > 255) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Idempotency-Key must be 1-255 characters");
+        }
+        Attempt attempt = new Attempt(fingerprint, new CompletableFuture<>());
+        Attempt first = attempts.asMap().putIfAbsent(key, attempt);
+        if (first != null) {
+            return awaitAttempt(key, fingerprint, first, action);
+        }
+
+        boolean claimed = false;
+        try {
+            UUID stored = claimOrAwaitStored(key, fingerprint);
+            if (stored != null) {
+                attempt.result().complete(stored);
+                return new Outcome(stored, true);
+            }
+            claimed = true;
+            UUID orderId = action.get();
+            idempotencyRecordRepository.complete(key, orderId);
+            attempt.result().complete(orderId);
+            return new Outcome(orderId, false);
+        } catch (RuntimeException e) {
+            if (claimed) {
+                idempotencyRecordRepository.release(key, OffsetDateTime.now());
+            }
+            attempts.asMap().remove(key, attempt);
+            attempt.result().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    // The order a key produced was rejected later on, so the key runs anew next time
+    public void forget(String key, UUID orderId) {
+        Attempt attempt = attempts.getIfPresent(key);
+        if (attempt != null) {
+            try {
+                // The intake can reject before execute() has recorded the order id; wait for it
+                if (orderId.equals(attempt.result().get(waitMillis, TimeUnit.MILLISECONDS))) {
+                    attempts.asMap().remove(key, attempt);
+                }
+            } catch (ExecutionException | TimeoutException e) {
+                log.warn("Idempotency key {} did not settle before its order was rejected", key);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        idempotencyRecordRepository.forget(key, orderId);
+    }
+
+    @Scheduled(fixedDelayString = "${order.idempotency.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        int purged = idempotencyRecordRepository.deleteExpired(OffsetDateTime.now());
+        if (purged > 0) {
+            log.debug("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    // Duplicate inside this instance: wait for the first one, or run again if it failed
+    private Outcome awaitAttempt(String key, String fingerprint, Attempt first, Supplier<UUID> action) {
+        if (!first.fingerprint().equals(fingerprint)) {
+            throw mismatch();
+        }
+        try {
+            return new Outcome(first.result().get(waitMillis, TimeUnit.MILLISECONDS), true);
+        } catch (ExecutionException e) {
+            // First one failed and gave the key up, nothing was created: this request is the retry
+            return execute(key, fingerprint, action);
+        } catch (TimeoutException e) {
+            throw stillRunning();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw stillRunning();
+        }
+    }
+
+    // null once this request holds the key; otherwise the order id another request produced
+    private UUID claimOrAwaitStored(String key, String fingerprint) {
+        long deadline = System.currentTimeMillis() + waitMillis;
+        while (true) {
+            Optional<IdempotencyRecord> stored = idempotencyRecordRepository.findById(key);
+            if (stored.isEmpty()) {
+                OffsetDateTime now = OffsetDateTime.now();
+                try {
+                    idempotencyRecordRepository.claim(key, fingerprint, now, now.plus(ttl));
+                    return null;
+                } catch (DataIntegrityViolationException e) {
+                    // Another instance claimed it first, read its row
+                    continue;
+                }
+            }
+            IdempotencyRecord record = stored.get();
+            if (!record.getFingerprint().equals(fingerprint)) {
+                throw mismatch();
+            }
+            if (record.getStatus() == IdempotencyStatus.COMPLETED) {
+                return record.getOrderId();
+            }
+            if (idempotencyRecordRepository.release(key, OffsetDateTime.now().minus(abandonAfter)) == 1) {
+                continue;
+            }
+            if (System.currentTimeMillis() >= deadline) {
+                throw stillRunning();
+            }
+            try {
+                Thread.sleep(POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw stillRunning();
+            }
+        }
+    }
+
+    private static ResponseStatusException mismatch() {
+        return new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                "Idempotency-Key was already used for a different request");
+    }
+
+    private static ResponseStatusException stillRunning() {
+        return new ResponseStatusException(HttpStatus.CONFLICT,
+                "A request with this Idempotency-Key is still being processed, retry later");
+    }
+}
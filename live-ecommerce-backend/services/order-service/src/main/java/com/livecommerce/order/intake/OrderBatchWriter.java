@@ -0,0 +1,88 @@
+package com.livecommerce.order.intake;
+
+import com.livecommerce.order.domain.Order;
+import com.livecommerce.order.domain.OrderItem;
+import com.livecommerce.order.id.TimeOrderedUuids;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.ByteBuffer;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Saves prepared orders straight through JDBC: one transaction, one orders batch and one
+ * order_items batch for the whole group, so a burst costs a handful of round trips and a
+ * single commit instead of one of each per order.
+ * Writes the same columns the Order/OrderItem mappings use (UUIDs as binary(16), times as UTC).
+ */
+@Component
+public class OrderBatchWriter {
+
+    private static final String INSERT_ORDER = "INSERT INTO orders " +
+            "(id, user_id, total_amount, status, stock_hold_id, created_at, updated_at, version) VALUES (?, ?, ?, ?, ?, ?, ?, 0)";
+    private static final String INSERT_ITEM = "INSERT INTO order_items " +
+            "(id, order_id, product_id, product_name, price, quantity) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public OrderBatchWriter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // All or nothing; ids must already be assigned on the orders
+    public void write(List<Order> orders) {
+        List<Object[]> items = new ArrayList<>();
+        for (Order order : orders) {
+            for (OrderItem item : order.getItems()) {
+                if (item.getId() == null) {
+                    item.setId(TimeOrderedUuids.next());
+                }
+                items.add(new Object[]{item, order.getId()});
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_ORDER, orders, orders.size(), OrderBatchWriter::bindOrder);
+            jdbcTemplate.batchUpdate(INSERT_ITEM, items, items.size(), (ps, row) -> bindItem(ps, (OrderItem) row[0], (UUID) row[1]));
+        });
+    }
+
+    private static void bindOrder(PreparedStatement ps, Order order) throws SQLException {
+        ps.setBytes(1, bytes(order.getId()));
+        ps.setString(2, order.getUserId());
+        ps.setBigDecimal(3, order.getTotalAmount());
+        ps.setString(4, order.getStatus().name());
+        ps.setString(5, order.getStockHoldId());
+        ps.setObject(6, utc(order.getCreatedAt()));
+        ps.setObject(7, utc(order.getUpdatedAt()));
+    }
+
+    private static void bindItem(PreparedStatement ps, OrderItem item, UUID orderId) throws SQLException {
+        ps.setBytes(1, bytes(item.getId()));
+        ps.setBytes(2, bytes(orderId));
+        ps.setLong(3, item.getProductId());
+        ps.setString(4, item.getProductName());
+        ps.setBigDecimal(5, item.getPrice());
+        ps.setInt(6, item.getQuantity());
+    }
+
+    private static byte[] bytes(UUID id) {
+        return ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
+    }
+
+    private static Object utc(OffsetDateTime time) {
+        return time.withOffsetSameInstant(ZoneOffset.UTC).toLocalDateTime();
+    }
+}
@@ -0,0 +1,253 @@
+package com.livecommerce.order.intake;
+
+import com.livecommerce.order.domain.Order;
+import com.livecommerce.order.domain.OrderItem;
+import com.livecommerce.order.id.TimeOrderedUuids;
+import com.livecommerce.order.repository.OrderRepository;
+import com.livecommerce.order.sales.SalesAccumulator;
+import com.livecommerce.order.service.OrderService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchronous order intake for drops.
+ * submit() only validates the cart and assigns the order id; the caller gets 202 right away.
+ * Pricing and the stock hold then run on a virtual thread per order, and prepared orders go
+ * to a single writer thread that group-commits whatever has piled up (up to batchSize,
+ * waiting at most lingerMs for stragglers) through OrderBatchWriter.
+ * At most capacity orders are in flight; beyond that submit() refuses instead of queueing
+ * without bound. Rejected orders keep their status for retentionMs, created ones are
+ * answered from the orders table.
+ * Until the writer commits it, an accepted order exists only in this JVM's memory: a crash or
+ * kill in between loses it even though the client already got 202, and its stock hold is only
+ * given back when the hold expires. Clients that need certainty poll the status URL.
+ */
+@Slf4j
+@Component
+public class OrderIntake {
+
+    private record Rejection(String reason, long at) {
+    }
+
+    private final OrderService orderService;
+    private final OrderBatchWriter orderBatchWriter;
+    private final OrderRepository orderRepository;
+    private final SalesAccumulator salesAccumulator;
+    private final boolean async;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final long retentionMillis;
+    private final Semaphore capacity;
+    private final ExecutorService preparers = Executors.newVirtualThreadPerTaskExecutor();
+    private final LinkedBlockingQueue<Order> prepared = new LinkedBlockingQueue<>();
+    // Queued order id -> what to run if it gets rejected
+    private final Map<UUID, Consumer<UUID>> queued = new ConcurrentHashMap<>();
+    private final Map<UUID, Rejection> rejected = new ConcurrentHashMap<>();
+    // Only when async; synchronous intake never queues anything
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public OrderIntake(OrderService orderService,
+                       OrderBatchWriter orderBatchWriter,
+                       OrderRepository orderRepository,
+                       SalesAccumulator salesAccumulator,
+                       @Value("${order.intake.async:false}") boolean async,
+                       @Value("${order.intake.capacity:10000}") int capacity,
+                       @Value("${order.intake.batch-size:200}") int batchSize,
+                       @Value("${order.intake.linger-ms:2}") long lingerMs,
+                       @Value("${order.intake.retention-ms:600000}") long retentionMillis) {
+        this.orderService = orderService;
+        this.orderBatchWriter = orderBatchWriter;
+        this.orderRepository = orderRepository;
+        this.salesAccumulator = salesAccumulator;
+        this.async = async;
+        this.capacity = new Semaphore(capacity);
+        this.batchSize = Math.max(1, batchSize);
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMs);
+        this.retentionMillis = retentionMillis;
+        this.writer = async ? Thread.ofPlatform().name("order-intake-writer").start(this::drain) : null;
+    }
+
+    public boolean isAsync() {
+        return async;
+    }
+
+    // The new order id, or empty when the intake is full
+    public Optional<UUID> submit(Order order) {
+        return submit(order, orderId -> {
+        });
+    }
+
+    // onReject gets the order id if preparing or saving the order fails later on
+    public Optional<UUID> submit(Order order, Consumer<UUID> onReject) {
+        validate(order);
+        if (!capacity.tryAcquire()) {
+            return Optional.empty();
+        }
+        UUID orderId = TimeOrderedUuids.next();
+        order.setId(orderId);
+        queued.put(orderId, onReject);
+        preparers.execute(() -> prepare(order));
+        return Optional.of(orderId);
+    }
+
+    public Optional<OrderIntakeStatus> status(UUID orderId) {
+        if (queued.containsKey(orderId)) {
+            return Optional.of(new OrderIntakeStatus(orderId, OrderIntakeState.QUEUED, null));
+        }
+        Rejection rejection = rejected.get(orderId);
+        if (rejection != null) {
+            return Optional.of(new OrderIntakeStatus(orderId, OrderIntakeState.REJECTED, rejection.reason()));
+        }
+        return orderRepository.existsById(orderId)
+                ? Optional.of(new OrderIntakeStatus(orderId, OrderIntakeState.CREATED, null))
+                : Optional.empty();
+    }
+
+    private static void validate(Order order) {
+        if (order.getUserId() == null || order.getUserId().isBlank()) {
+            throw new RuntimeException("userId is required");
+        }
+        if (order.getItems() == null || order.getItems().isEmpty()) {
+            throw new RuntimeException("Order has no items");
+        }
+        for (OrderItem item : order.getItems()) {
+            if (item.getProductId() == null || item.getQuantity() == null || item.getQuantity() <= 0) {
+                throw new RuntimeException("Invalid order item: " + item.getProductId());
+            }
+        }
+    }
+
+    private void prepare(Order order) {
+        try {
+            orderService.prepareOrder(order);
+        } catch (RuntimeException e) {
+            reject(order, e.getMessage());
+            return;
+        }
+        prepared.add(order);
+    }
+
+    // Writer thread: take what is ready, linger briefly for more, commit it as one group
+    private void drain() {
+        List<Order> batch = new ArrayList<>(batchSize);
+        while (running || !prepared.isEmpty()) {
+            try {
+                Order first = prepared.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    pruneRejections();
+                    continue;
+                }
+                batch.add(first);
+                long lingerUntil = System.nanoTime() + lingerNanos;
+                while (batch.size() < batchSize) {
+                    prepared.drainTo(batch, batchSize - batch.size());
+                    long remaining = lingerUntil - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    Order next = prepared.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Shutting down, write what was collected and keep draining
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Order> batch) {
+        boolean committed = false;
+        try {
+            orderBatchWriter.write(batch);
+            committed = true;
+        } catch (RuntimeException e) {
+            log.warn("Group commit of {} orders failed, writing them one by one", batch.size(), e);
+        }
+        // Bookkeeping stays outside the try: once the rows are committed nothing may retry or cancel them
+        if (committed) {
+            batch.forEach(this::created);
+            return;
+        }
+        // One bad order must not take the rest of the group down with it
+        for (Order order : batch) {
+            try {
+                orderBatchWriter.write(List.of(order));
+            } catch (RuntimeException e) {
+                notSaved(order);
+                continue;
+            }
+            created(order);
+        }
+    }
+
+    private void created(Order order) {
+        queued.remove(order.getId());
+        capacity.release();
+        try {
+            salesAccumulator.ordered(order);
+        } catch (RuntimeException e) {
+            log.warn("Could not count order {} in the sales totals", order.getId(), e);
+        }
+    }
+
+    private void notSaved(Order order) {
+        try {
+            orderService.cancelPreparedOrder(order);
+        } catch (RuntimeException e) {
+            log.warn("Could not release the stock held for order {}", order.getId(), e);
+        }
+        reject(order, "Order could not be saved");
+    }
+
+    private void reject(Order order, String reason) {
+        rejected.put(order.getId(), new Rejection(reason, System.currentTimeMillis()));
+        Consumer<UUID> onReject = queued.remove(order.getId());
+        capacity.release();
+        if (onReject != null) {
+            try {
+                onReject.accept(order.getId());
+            } catch (RuntimeException e) {
+                log.warn("Rejection callback for order {} failed", order.getId(), e);
+            }
+        }
+    }
+
+    private void pruneRejections() {
+        long cutoff = System.currentTimeMillis() - retentionMillis;
+        rejected.values().removeIf(rejection -> rejection.at() < cutoff);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        // Let accepted orders finish preparing, then let the writer empty the queue
+        preparers.shutdown();
+        preparers.awaitTermination(10, TimeUnit.SECONDS);
+        running = false;
+        if (writer != null) {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.livecommerce.order.intake;
+
+public enum OrderIntakeState {
+  QUEUED,
+  CREATED,
+  REJECTED
+}
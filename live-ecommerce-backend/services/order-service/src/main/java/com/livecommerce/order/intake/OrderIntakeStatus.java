@@ -0,0 +1,16 @@
+package com.livecommerce.order.intake;
+
+import lombok.*;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderIntakeStatus {
+    private UUID orderId;
+    private OrderIntakeState state;
+    // Why the order was rejected, only set for REJECTED
+    private String reason;
+}
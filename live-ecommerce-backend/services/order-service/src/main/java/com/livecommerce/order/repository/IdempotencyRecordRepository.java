@@ -0,0 +1,47 @@
+package com.livecommerce.order.repository;
+
+import com.livecommerce.order.domain.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    // Plain INSERT so a key claimed by another instance fails on the primary key instead of being merged over
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (idempotency_key, fingerprint, status, created_at, expires_at) " +
+            "VALUES (:key, :fingerprint, 'IN_PROGRESS', :createdAt, :expiresAt)", nativeQuery = true)
+    void claim(@Param("key") String key,
+               @Param("fingerprint") String fingerprint,
+               @Param("createdAt") OffsetDateTime createdAt,
+               @Param("expiresAt") OffsetDateTime expiresAt);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.status = com.livecommerce.order.domain.IdempotencyStatus.COMPLETED, " +
+            "r.orderId = :orderId WHERE r.key = :key")
+    int complete(@Param("key") String key, @Param("orderId") UUID orderId);
+
+    // Only an unfinished claim is dropped, a completed key stays until it expires
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.key = :key " +
+            "AND r.status = com.livecommerce.order.domain.IdempotencyStatus.IN_PROGRESS AND r.createdAt <= :claimedBefore")
+    int release(@Param("key") String key, @Param("claimedBefore") OffsetDateTime claimedBefore);
+
+    // A completed key whose order was rejected after the fact
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.key = :key AND r.orderId = :orderId")
+    int forget(@Param("key") String key, @Param("orderId") UUID orderId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") OffsetDateTime now);
+}
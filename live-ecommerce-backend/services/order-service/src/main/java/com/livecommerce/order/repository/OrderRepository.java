@@ -1,10 +1,61 @@
 package com.livecommerce.order.repository;
 
 import com.livecommerce.order.domain.Order;
+import com.livecommerce.order.domain.OrderStatus;
+import com.livecommerce.order.response.OrderSummary;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface OrderRepository extends JpaRepository<Order, UUID> {
-    List<Order> findByUserId(String userId);
-}
\ No newline at end of file
+
+    // Newest first; (createdAt, id) is the keyset so orders placed in the same instant are not skipped
+    String NEWEST_FIRST = " ORDER BY o.createdAt DESC, o.id DESC";
+    String BEFORE_CURSOR = " AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id))";
+    String SUMMARY = "SELECT new com.livecommerce.order.response.OrderSummary(" +
+            "o.id, o.userId, o.totalAmount, o.status, o.createdAt, SIZE(o.items)) FROM Order o ";
+
+    @Query("SELECT o.id FROM Order o WHERE o.userId = :userId" + NEWEST_FIRST)
+    List<UUID> findIdsByUserId(@Param("userId") String userId, Limit limit);
+
+    @Query("SELECT o.id FROM Order o WHERE o.userId = :userId" + BEFORE_CURSOR + NEWEST_FIRST)
+    List<UUID> findIdsByUserIdBefore(@Param("userId") String userId,
+                                     @Param("createdAt") OffsetDateTime createdAt,
+                                     @Param("id") UUID id,
+                                     Limit limit);
+
+    // One query for the items of a whole page
+    @Query("SELECT o FROM Order o LEFT JOIN FETCH o.items WHERE o.id IN :ids" + NEWEST_FIRST)
+    List<Order> findWithItemsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query(SUMMARY + "WHERE o.userId = :userId" + NEWEST_FIRST)
+    List<OrderSummary> findSummariesByUserId(@Param("userId") String userId, Limit limit);
+
+    @Query(SUMMARY + "WHERE o.userId = :userId" + BEFORE_CURSOR + NEWEST_FIRST)
+    List<OrderSummary> findSummariesByUserIdBefore(@Param("userId") String userId,
+                                                   @Param("createdAt") OffsetDateTime createdAt,
+                                                   @Param("id") UUID id,
+                                                   Limit limit);
+
+    @EntityGraph(attributePaths = "items")
+    Optional<Order> findWithItemsById(UUID id);
+
+    // Set-based transition; only rows still in one of the source statuses move, each gets a new version
+    @Transactional
+    @Modifying
+    @Query("UPDATE Order o SET o.status = :target, o.updatedAt = :now, o.version = o.version + 1 " +
+            "WHERE o.id IN :ids AND o.status IN :sources")
+    int transition(@Param("ids") Collection<UUID> ids,
+                   @Param("sources") Collection<OrderStatus> sources,
+                   @Param("target") OrderStatus target,
+                   @Param("now") OffsetDateTime now);
+}
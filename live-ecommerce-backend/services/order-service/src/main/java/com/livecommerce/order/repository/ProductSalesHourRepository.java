@@ -0,0 +1,36 @@
+package com.livecommerce.order.repository;
+
+import com.livecommerce.order.domain.ProductSalesHour;
+import com.livecommerce.order.domain.ProductSalesHourId;
+import com.livecommerce.order.response.ProductSales;
+import com.livecommerce.order.response.SalesBucket;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.List;
+
+// Reads only the hourly aggregate, never orders or order_items; hours are inclusive on both ends
+public interface ProductSalesHourRepository extends JpaRepository<ProductSalesHour, ProductSalesHourId> {
+
+    String PRODUCT_TOTALS = "SELECT new com.livecommerce.order.response.ProductSales(s.id.productId, " +
+            "SUM(s.orderedUnits), SUM(s.orderedRevenue), SUM(s.paidUnits), SUM(s.paidRevenue)) " +
+            "FROM ProductSalesHour s WHERE s.id.hour BETWEEN :fromHour AND :toHour GROUP BY s.id.productId ";
+    String HOUR_TOTALS = "SELECT new com.livecommerce.order.response.SalesBucket(s.id.hour, " +
+            "SUM(s.orderedUnits), SUM(s.orderedRevenue), SUM(s.paidUnits), SUM(s.paidRevenue)) " +
+            "FROM ProductSalesHour s WHERE s.id.hour BETWEEN :fromHour AND :toHour ";
+
+    @Query(PRODUCT_TOTALS + "ORDER BY SUM(s.orderedRevenue) DESC")
+    List<ProductSales> findTopByRevenue(@Param("fromHour") long fromHour, @Param("toHour") long toHour, Limit limit);
+
+    @Query(PRODUCT_TOTALS + "ORDER BY SUM(s.orderedUnits) DESC")
+    List<ProductSales> findTopByUnits(@Param("fromHour") long fromHour, @Param("toHour") long toHour, Limit limit);
+
+    @Query(HOUR_TOTALS + "GROUP BY s.id.hour ORDER BY s.id.hour")
+    List<SalesBucket> findHourly(@Param("fromHour") long fromHour, @Param("toHour") long toHour);
+
+    @Query(HOUR_TOTALS + "AND s.id.productId = :productId GROUP BY s.id.hour ORDER BY s.id.hour")
+    List<SalesBucket> findHourlyByProduct(@Param("productId") Long productId,
+                                          @Param("fromHour") long fromHour,
+                                          @Param("toHour") long toHour);
+}
@@ -0,0 +1,30 @@
+package com.livecommerce.order.request;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+// Keyset position in a user's order history: "<createdAt epoch micros>_<order id>"
+public record OrderCursor(OffsetDateTime createdAt, UUID id) {
+
+    public static OrderCursor parse(String cursor) {
+        int split = cursor.indexOf('_');
+        if (split < 0) {
+            throw new RuntimeException("Invalid order cursor: " + cursor);
+        }
+        try {
+            long micros = Long.parseLong(cursor.substring(0, split));
+            Instant instant = Instant.ofEpochSecond(Math.floorDiv(micros, 1_000_000L), Math.floorMod(micros, 1_000_000L) * 1_000L);
+            return new OrderCursor(instant.atOffset(ZoneOffset.UTC), UUID.fromString(cursor.substring(split + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid order cursor: " + cursor);
+        }
+    }
+
+    @Override
+    public String toString() {
+        Instant instant = createdAt.toInstant();
+        return (instant.getEpochSecond() * 1_000_000L + instant.getNano() / 1_000) + "_" + id;
+    }
+}
@@ -0,0 +1,15 @@
+package com.livecommerce.order.request;
+
+import com.livecommerce.order.domain.OrderStatus;
+import lombok.*;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderStatusChange {
+    private UUID orderId;
+    private OrderStatus status;
+}
@@ -0,0 +1,18 @@
+package com.livecommerce.order.response;
+
+import com.livecommerce.order.domain.OrderStatus;
+import lombok.*;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkStatusResult {
+    private int requested;
+    private int applied;
+    // Unknown orders, orders not in a source status of their target, and duplicates
+    private int rejected;
+    private Map<OrderStatus, Integer> appliedByStatus;
+}
@@ -0,0 +1,22 @@
+package com.livecommerce.order.response;
+
+import com.livecommerce.order.domain.OrderStatus;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+// Order history row without the items
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderSummary {
+    private UUID id;
+    private String userId;
+    private BigDecimal totalAmount;
+    private OrderStatus status;
+    private OffsetDateTime createdAt;
+    private Integer itemCount;
+}
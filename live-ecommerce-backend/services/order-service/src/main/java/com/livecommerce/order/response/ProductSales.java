@@ -0,0 +1,18 @@
+package com.livecommerce.order.response;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+
+// One product's sales over a time range
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductSales {
+    private Long productId;
+    private Long orderedUnits;
+    private BigDecimal orderedRevenue;
+    private Long paidUnits;
+    private BigDecimal paidRevenue;
+}
@@ -0,0 +1,26 @@
+package com.livecommerce.order.response;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+// Sales in one hour or day of a timeline
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SalesBucket {
+    private OffsetDateTime start;
+    private Long orderedUnits;
+    private BigDecimal orderedRevenue;
+    private Long paidUnits;
+    private BigDecimal paidRevenue;
+
+    // For JPQL, which has the bucket as hours since the epoch
+    public SalesBucket(Long hour, Long orderedUnits, BigDecimal orderedRevenue, Long paidUnits, BigDecimal paidRevenue) {
+        this(Instant.ofEpochSecond(hour * 3600).atOffset(ZoneOffset.UTC), orderedUnits, orderedRevenue, paidUnits, paidRevenue);
+    }
+}
@@ -0,0 +1,119 @@
+package com.livecommerce.order.sales;
+
+import com.livecommerce.order.domain.Order;
+import com.livecommerce.order.domain.OrderItem;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Incremental upkeep of the product_sales_hourly read model.
+ * Order creation and payment add their lines to in-memory deltas keyed by (product, hour);
+ * a scheduled flush takes every delta out of the map and adds it to the table with one
+ * batched INSERT ... ON DUPLICATE KEY UPDATE. merge() and remove() are atomic per key, so an
+ * increment lands either in the batch being flushed or in the next one, never in neither.
+ * A failed flush puts its deltas back. Deltas not yet flushed when the JVM dies are lost,
+ * which bounds the drift to one flush interval.
+ */
+@Slf4j
+@Component
+public class SalesAccumulator {
+
+    private record Key(long productId, long hour) {
+    }
+
+    // Revenue in cents so deltas add up exactly
+    private record Delta(long orderedUnits, long orderedCents, long paidUnits, long paidCents) {
+        Delta plus(Delta other) {
+            return new Delta(orderedUnits + other.orderedUnits, orderedCents + other.orderedCents,
+                    paidUnits + other.paidUnits, paidCents + other.paidCents);
+        }
+    }
+
+    private static final String UPSERT = "INSERT INTO product_sales_hourly " +
+            "(product_id, bucket_hour, ordered_units, ordered_revenue, paid_units, paid_revenue) VALUES (?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE ordered_units = ordered_units + VALUES(ordered_units), " +
+            "ordered_revenue = ordered_revenue + VALUES(ordered_revenue), " +
+            "paid_units = paid_units + VALUES(paid_units), paid_revenue = paid_revenue + VALUES(paid_revenue)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<Key, Delta> pending = new ConcurrentHashMap<>();
+
+    public SalesAccumulator(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public static long hourOf(OffsetDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(), 3600);
+    }
+
+    // Order saved: counts in the hour it was placed
+    public void ordered(Order order) {
+        long hour = hourOf(order.getCreatedAt());
+        for (OrderItem item : order.getItems()) {
+            add(new Key(item.getProductId(), hour), new Delta(item.getQuantity(), cents(item), 0, 0));
+        }
+    }
+
+    // Order paid: counts in the hour of the payment
+    public void paid(Order order) {
+        long hour = hourOf(order.getUpdatedAt());
+        for (OrderItem item : order.getItems()) {
+            add(new Key(item.getProductId(), hour), new Delta(0, 0, item.getQuantity(), cents(item)));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${order.sales.flush-interval-ms:1000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<Key, Delta>> drained = new ArrayList<>();
+        for (Key key : List.copyOf(pending.keySet())) {
+            Delta delta = pending.remove(key);
+            if (delta != null) {
+                drained.add(Map.entry(key, delta));
+            }
+        }
+        try {
+            jdbcTemplate.batchUpdate(UPSERT, drained, drained.size(), (ps, entry) -> {
+                ps.setLong(1, entry.getKey().productId());
+                ps.setLong(2, entry.getKey().hour());
+                ps.setLong(3, entry.getValue().orderedUnits());
+                ps.setBigDecimal(4, BigDecimal.valueOf(entry.getValue().orderedCents(), 2));
+                ps.setLong(5, entry.getValue().paidUnits());
+                ps.setBigDecimal(6, BigDecimal.valueOf(entry.getValue().paidCents(), 2));
+            });
+        } catch (RuntimeException e) {
+            log.warn("Flushing {} sales deltas failed, keeping them for the next flush", drained.size(), e);
+            drained.forEach(entry -> add(entry.getKey(), entry.getValue()));
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        flush();
+    }
+
+    private void add(Key key, Delta delta) {
+        pending.merge(key, delta, Delta::plus);
+    }
+
+    private static long cents(OrderItem item) {
+        return item.getPrice()
+                .multiply(BigDecimal.valueOf(item.getQuantity()))
+                .setScale(2, RoundingMode.HALF_UP)
+                .unscaledValue()
+                .longValueExact();
+    }
+}
@@ -0,0 +1,68 @@
+package com.livecommerce.order.sales;
+
+import com.livecommerce.order.repository.ProductSalesHourRepository;
+import com.livecommerce.order.response.ProductSales;
+import com.livecommerce.order.response.SalesBucket;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+// Dashboard rollups served from product_sales_hourly alone
+@Component
+@RequiredArgsConstructor
+public class SalesReports {
+
+    public enum Ranking {
+        REVENUE,
+        UNITS
+    }
+
+    public enum Granularity {
+        HOUR,
+        DAY
+    }
+
+    private final ProductSalesHourRepository productSalesHourRepository;
+
+    public List<ProductSales> topProducts(OffsetDateTime from, OffsetDateTime to, Ranking ranking, int limit) {
+        long fromHour = SalesAccumulator.hourOf(from);
+        long toHour = SalesAccumulator.hourOf(to);
+        return ranking == Ranking.UNITS
+                ? productSalesHourRepository.findTopByUnits(fromHour, toHour, Limit.of(limit))
+                : productSalesHourRepository.findTopByRevenue(fromHour, toHour, Limit.of(limit));
+    }
+
+    // productId == null: all products together
+    public List<SalesBucket> timeline(Long productId, OffsetDateTime from, OffsetDateTime to, Granularity granularity) {
+        long fromHour = SalesAccumulator.hourOf(from);
+        long toHour = SalesAccumulator.hourOf(to);
+        List<SalesBucket> hours = productId == null
+                ? productSalesHourRepository.findHourly(fromHour, toHour)
+                : productSalesHourRepository.findHourlyByProduct(productId, fromHour, toHour);
+        return granularity == Granularity.DAY ? byDay(hours) : hours;
+    }
+
+    // Hourly rows come back sorted, so days are consecutive runs (UTC days)
+    private static List<SalesBucket> byDay(List<SalesBucket> hours) {
+        List<SalesBucket> days = new ArrayList<>();
+        SalesBucket day = null;
+        for (SalesBucket hour : hours) {
+            OffsetDateTime start = hour.getStart().truncatedTo(ChronoUnit.DAYS);
+            if (day == null || !day.getStart().equals(start)) {
+                day = new SalesBucket(start, 0L, BigDecimal.ZERO, 0L, BigDecimal.ZERO);
+                days.add(day);
+            }
+            day.setOrderedUnits(day.getOrderedUnits() + hour.getOrderedUnits());
+            day.setOrderedRevenue(day.getOrderedRevenue().add(hour.getOrderedRevenue()));
+            day.setPaidUnits(day.getPaidUnits() + hour.getPaidUnits());
+            day.setPaidRevenue(day.getPaidRevenue().add(hour.getPaidRevenue()));
+        }
+        return days;
+    }
+}
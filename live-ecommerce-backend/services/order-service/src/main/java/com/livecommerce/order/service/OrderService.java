@@ -2,12 +2,23 @@ package com.livecommerce.order.service;
 
 import com.livecommerce.order.domain.Order;
 import com.livecommerce.order.domain.OrderStatus;
+import com.livecommerce.order.request.OrderCursor;
+import com.livecommerce.order.request.OrderStatusChange;
+import com.livecommerce.order.response.BulkStatusResult;
+import com.livecommerce.order.response.OrderSummary;
 import java.util.List;
 import java.util.UUID;
 
 public interface OrderService {
     Order createOrder(Order order);
-    List<Order> getOrdersByUser(String userId);
+    // Prices the items and places the stock hold without saving; used by the async intake
+    Order prepareOrder(Order order);
+    // Gives back the stock hold of a prepared order that could not be saved
+    void cancelPreparedOrder(Order order);
+    // Newest first, one keyset page; before == null starts at the latest order
+    List<Order> getOrdersByUser(String userId, OrderCursor before, int limit);
+    List<OrderSummary> getOrderSummariesByUser(String userId, OrderCursor before, int limit);
     Order getOrderById(UUID orderId);
     Order updateOrderStatus(UUID orderId, OrderStatus status);
+    BulkStatusResult updateOrderStatuses(List<OrderStatusChange> changes);
 }
\ No newline at end of file
@@ -1,15 +1,28 @@
 package com.livecommerce.order.service.impl;
 
 import com.livecommerce.order.client.ProductClient;
+import com.livecommerce.order.client.ProductResolver;
 import com.livecommerce.order.domain.*;
 import com.livecommerce.order.repository.OrderRepository;
+import com.livecommerce.order.request.OrderCursor;
+import com.livecommerce.order.request.OrderStatusChange;
+import com.livecommerce.order.response.BulkStatusResult;
+import com.livecommerce.order.response.OrderSummary;
+import com.livecommerce.order.sales.SalesAccumulator;
 import com.livecommerce.order.service.OrderService;
+import feign.FeignException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -18,15 +31,36 @@ public class OrderServiceImpl implements OrderService {
 
     private final OrderRepository orderRepository;
     private final ProductClient productClient;
+    private final ProductResolver productResolver;
+    private final SalesAccumulator salesAccumulator;
 
     @Override
     public Order createOrder(Order order) {
+        prepareOrder(order);
+        Order saved;
+        try {
+            saved = orderRepository.save(order);
+        } catch (RuntimeException e) {
+            // Order save nahi hua, stock turant wapas do instead of waiting for the expiry
+            cancelPreparedOrder(order);
+            throw e;
+        }
+        salesAccumulator.ordered(saved);
+        return saved;
+    }
+
+    @Override
+    public Order prepareOrder(Order order) {
         List<OrderItem> validItems = new ArrayList<>();
         BigDecimal totalAmount = BigDecimal.ZERO;
 
+        // Saare products ek saath fetch karo, totals neeche sab aane ke baad
+        Map<Long, ProductClient.ProductDto> products = productResolver.resolve(order.getItems().stream()
+                .map(OrderItem::getProductId)
+                .toList());
+
         for (OrderItem item : order.getItems()) {
-            // Product fetch karo
-            ProductClient.ProductDto product = productClient.getProductById(item.getProductId());
+            ProductClient.ProductDto product = products.get(item.getProductId());
 
             if (product.stock >= item.getQuantity()) {
                 // Order item prepare karo
@@ -40,40 +74,117 @@ public class OrderServiceImpl implements OrderService {
 
                 // Total amount calculate karo
                 totalAmount = totalAmount.add(product.price.multiply(BigDecimal.valueOf(item.getQuantity())));
-
-                // ✅ Stock reduce karo product service me
-                productClient.reduceStock(product.id, item.getQuantity());
-
             } else {
                 throw new RuntimeException("Product " + product.name + " stock not sufficient");
             }
         }
 
+        // ✅ Stock hold karo product service me, whole cart in one call so it is all or nothing.
+        // Payment nahi aaya to hold expire hoke stock wapas aa jata hai
+        List<ProductClient.StockReservationLine> lines = validItems.stream()
+                .map(orderItem -> new ProductClient.StockReservationLine(orderItem.getProductId(), orderItem.getQuantity()))
+                .toList();
+        ProductClient.StockHoldResult hold;
+        try {
+            hold = productClient.placeHold(new ProductClient.StockHoldRequest(lines));
+        } catch (FeignException.Conflict e) {
+            throw new RuntimeException("Stock not sufficient for order: " + e.contentUTF8());
+        }
+
         order.setItems(validItems);
         order.setTotalAmount(totalAmount);
         order.setStatus(OrderStatus.CREATED);
+        order.setStockHoldId(hold.holdId);
         order.setCreatedAt(OffsetDateTime.now());
         order.setUpdatedAt(OffsetDateTime.now());
+        return order;
+    }
 
-        return orderRepository.save(order);
+    @Override
+    public void cancelPreparedOrder(Order order) {
+        if (order.getStockHoldId() == null) {
+            return;
+        }
+        try {
+            productClient.releaseHold(order.getStockHoldId());
+        } catch (FeignException e) {
+            // Release fail hua to bhi hold apne time pe expire ho jayega
+        }
     }
 
     @Override
-    public List<Order> getOrdersByUser(String userId) {
-        return orderRepository.findByUserId(userId);
+    public List<Order> getOrdersByUser(String userId, OrderCursor before, int limit) {
+        // Pehle page ke ids (index se), phir un sab orders ke items ek hi join fetch me
+        List<UUID> ids = before == null
+                ? orderRepository.findIdsByUserId(userId, Limit.of(limit))
+                : orderRepository.findIdsByUserIdBefore(userId, before.createdAt(), before.id(), Limit.of(limit));
+        return ids.isEmpty() ? List.of() : orderRepository.findWithItemsByIdIn(ids);
+    }
+
+    @Override
+    public List<OrderSummary> getOrderSummariesByUser(String userId, OrderCursor before, int limit) {
+        return before == null
+                ? orderRepository.findSummariesByUserId(userId, Limit.of(limit))
+                : orderRepository.findSummariesByUserIdBefore(userId, before.createdAt(), before.id(), Limit.of(limit));
     }
 
     @Override
     public Order getOrderById(UUID orderId) {
-        return orderRepository.findById(orderId)
+        return orderRepository.findWithItemsById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found"));
     }
 
     @Override
     public Order updateOrderStatus(UUID orderId, OrderStatus status) {
         Order order = getOrderById(orderId);
+        if (!order.getStatus().canMoveTo(status)) {
+            throw new RuntimeException("Invalid status transition " + order.getStatus() + " -> " + status + " for order: " + orderId);
+        }
+        if (status == OrderStatus.PAID && order.getStatus() == OrderStatus.CREATED && order.getStockHoldId() != null) {
+            // Payment aaya, hold ko permanent karo; expired hold ka stock already wapas ja chuka hai.
+            // Confirm idempotent hai, so neeche ka save fail ho to retry dubara confirm kar sakta hai
+            try {
+                productClient.confirmHold(order.getStockHoldId());
+            } catch (FeignException.Conflict e) {
+                throw new RuntimeException("Stock hold expired for order: " + orderId);
+            }
+        }
         order.setStatus(status);
         order.setUpdatedAt(OffsetDateTime.now());
-        return orderRepository.save(order);
+        // @Version: concurrent update hua to ye save optimistic lock failure dega
+        Order saved = orderRepository.save(order);
+        if (status == OrderStatus.PAID) {
+            salesAccumulator.paid(saved);
+        }
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public BulkStatusResult updateOrderStatuses(List<OrderStatusChange> changes) {
+        // Target status ke hisaab se group karo, har target ke liye ek hi UPDATE
+        Map<OrderStatus, Set<UUID>> byTarget = new EnumMap<>(OrderStatus.class);
+        for (OrderStatusChange change : changes) {
+            // PAID needs its stock hold confirmed, so it only goes through updateOrderStatus
+            if (change.getOrderId() != null && change.getStatus() != null && change.getStatus() != OrderStatus.PAID) {
+                byTarget.computeIfAbsent(change.getStatus(), target -> new LinkedHashSet<>()).add(change.getOrderId());
+            }
+        }
+
+        OffsetDateTime now = OffsetDateTime.now();
+        Map<OrderStatus, Integer> appliedByStatus = new EnumMap<>(OrderStatus.class);
+        int applied = 0;
+        for (Map.Entry<OrderStatus, Set<UUID>> group : byTarget.entrySet()) {
+            Set<OrderStatus> sources = group.getKey().sources();
+            int moved = sources.isEmpty() ? 0 : orderRepository.transition(group.getValue(), sources, group.getKey(), now);
+            appliedByStatus.put(group.getKey(), moved);
+            applied += moved;
+        }
+        return BulkStatusResult.builder()
+                .requested(changes.size())
+                .applied(applied)
+                .rejected(changes.size() - applied)
+                .appliedByStatus(appliedByStatus)
+                .build();
     }
 }
\ No newline at end of file
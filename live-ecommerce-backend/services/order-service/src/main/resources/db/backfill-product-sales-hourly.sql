@@ -0,0 +1,39 @@
+-- One-off backfill of product_sales_hourly from orders / order_items, MySQL 8.
+--
+-- SalesAccumulator only counts orders placed and paid after it was deployed, so without this
+-- the seller dashboard starts empty. The backfill covers everything before a cutoff and adds
+-- to the rows the accumulator has written since, so order-service can stay up while it runs.
+-- Hours are UTC epoch hours, the same bucket_hour SalesAccumulator.hourOf() computes; the
+-- timestamps are read as UTC, as hibernate.jdbc.time_zone in order-service.yml stores them.
+
+-- 1. Cutoff: when the order-service with SalesAccumulator went live (UTC). Orders before it are
+--    not counted yet, later ones are. The first row it wrote narrows it down to the hour:
+SET time_zone = '+00:00';
+SELECT FROM_UNIXTIME(MIN(bucket_hour) * 3600) AS first_hour FROM product_sales_hourly;
+-- Replace with the actual go-live time:
+SET @cutoff = '2026-10-17 00:00:00';
+
+-- 2. Ordered units and revenue, in the hour each order was placed.
+INSERT INTO product_sales_hourly (product_id, bucket_hour, ordered_units, ordered_revenue, paid_units, paid_revenue)
+SELECT i.product_id, FLOOR(UNIX_TIMESTAMP(o.created_at) / 3600), SUM(i.quantity), SUM(ROUND(i.price * i.quantity, 2)), 0, 0
+FROM orders o
+JOIN order_items i ON i.order_id = o.id
+WHERE o.created_at < @cutoff
+GROUP BY i.product_id, FLOOR(UNIX_TIMESTAMP(o.created_at) / 3600)
+ON DUPLICATE KEY UPDATE ordered_units = ordered_units + VALUES(ordered_units),
+                        ordered_revenue = ordered_revenue + VALUES(ordered_revenue);
+
+-- 3. Paid units and revenue. Orders keep no payment time, so this uses updated_at: exact for
+--    PAID orders, the shipping or delivery hour for orders that moved on since. Orders paid
+--    before the cutoff but shipped after it are not counted as paid here.
+INSERT INTO product_sales_hourly (product_id, bucket_hour, ordered_units, ordered_revenue, paid_units, paid_revenue)
+SELECT i.product_id, FLOOR(UNIX_TIMESTAMP(o.updated_at) / 3600), 0, 0, SUM(i.quantity), SUM(ROUND(i.price * i.quantity, 2))
+FROM orders o
+JOIN order_items i ON i.order_id = o.id
+WHERE o.status IN ('PAID', 'SHIPPED', 'DELIVERED')
+  AND o.updated_at < @cutoff
+GROUP BY i.product_id, FLOOR(UNIX_TIMESTAMP(o.updated_at) / 3600)
+ON DUPLICATE KEY UPDATE paid_units = paid_units + VALUES(paid_units),
+                        paid_revenue = paid_revenue + VALUES(paid_revenue);
+
+-- 4. Run it once: a second run counts everything before the cutoff again.
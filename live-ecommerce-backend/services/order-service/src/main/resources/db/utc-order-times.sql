@@ -0,0 +1,29 @@
+-- Moving orders.created_at / updated_at to UTC, MySQL 8.
+--
+-- order-service now sets hibernate.jdbc.time_zone: UTC, so OffsetDateTime values are stored as
+-- UTC wall-clock DATETIMEs (OrderBatchWriter writes the same). Before that, Hibernate stored
+-- them in the JVM's default time zone. Rows from those releases must be shifted once, or they
+-- read back off by the old zone's offset: sales hours, order listings and the keyset cursors
+-- (which carry an instant) would all mix two clocks. idempotency_keys came later and is UTC already.
+-- Nothing to do if the old order-service JVMs ran with TZ=UTC (the usual container default).
+
+-- 1. Stop every order-service instance of the old release; start the UTC release only after
+--    step 3, so every row in the table is still in the old zone while it runs.
+
+-- 2. The zone the old order-service ran in (-Duser.timezone or TZ on its hosts). Named zones
+--    need the zone tables (mysql_tzinfo_to_sql); a fixed offset such as '+05:30' works without.
+--    Replace the placeholder; there is no safe default.
+SET @old_zone = '<old zone, e.g. +05:30>';
+
+-- Stops the script with "Subquery returns more than 1 row" while @old_zone is not a zone MySQL
+-- can convert from (CONVERT_TZ would return NULL and blank every timestamp below).
+SET @zone_ok = (SELECT 1 UNION ALL SELECT 1 FROM DUAL WHERE CONVERT_TZ('2000-01-01 00:00:00', @old_zone, '+00:00') IS NULL);
+
+-- 3. Shift them once.
+UPDATE orders
+SET created_at = CONVERT_TZ(created_at, @old_zone, '+00:00'),
+    updated_at = CONVERT_TZ(updated_at, @old_zone, '+00:00')
+WHERE CONVERT_TZ('2000-01-01 00:00:00', @old_zone, '+00:00') IS NOT NULL;
+
+-- Run it before db/backfill-product-sales-hourly.sql, which buckets by these columns. Cursors
+-- handed out by the old release may skip or repeat a few orders; clients just page again.
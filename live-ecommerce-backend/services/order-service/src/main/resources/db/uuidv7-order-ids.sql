@@ -0,0 +1,26 @@
+-- Moving orders / order_items to time-ordered (UUIDv7) ids, MySQL 8.
+--
+-- New rows get their ids from TimeOrderedUuids. Nothing has to be rewritten for that:
+-- existing v4 ids are still valid UUIDs in the same BINARY(16) columns, and keyset paging
+-- orders by created_at first, so old and new ids mix without problems. Order ids are left
+-- alone on purpose, because clients, idempotency_keys and status URLs already refer to them.
+
+-- 1. Check the key columns. Schemas created by Hibernate 6 on MySQL are already binary(16).
+SELECT table_name, column_name, column_type
+FROM information_schema.columns
+WHERE table_schema = DATABASE()
+  AND ((table_name = 'orders' AND column_name = 'id')
+    OR (table_name = 'order_items' AND column_name IN ('id', 'order_id')));
+
+-- 2. Only if step 1 shows char(36) (text UUIDs): convert them. Run it in a maintenance window,
+--    because it rebuilds both tables. Use the foreign key name from SHOW CREATE TABLE order_items.
+-- ALTER TABLE order_items DROP FOREIGN KEY <fk_order_items_order>;
+-- UPDATE orders SET id = UUID_TO_BIN(id);
+-- UPDATE order_items SET id = UUID_TO_BIN(id), order_id = UUID_TO_BIN(order_id);
+-- ALTER TABLE orders MODIFY id BINARY(16) NOT NULL;
+-- ALTER TABLE order_items MODIFY id BINARY(16) NOT NULL, MODIFY order_id BINARY(16);
+-- ALTER TABLE order_items ADD CONSTRAINT fk_order_items_order FOREIGN KEY (order_id) REFERENCES orders (id);
+
+-- 3. Once, after the deploy: rebuild the clustered indexes that random inserts left
+--    half-full. Later inserts append at the end, so the tables stay compact.
+OPTIMIZE TABLE orders, order_items;
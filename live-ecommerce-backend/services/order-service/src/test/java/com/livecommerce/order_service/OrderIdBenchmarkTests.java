@@ -0,0 +1,125 @@
+package com.livecommerce.order_service;
+
+import com.livecommerce.order.id.TimeOrderedUuids;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Insert throughput of random vs time-ordered BINARY(16) primary keys in InnoDB. Needs a MySQL:
+ *
+ *   mvn test -Dbenchmark=true -Dtest=OrderIdBenchmarkTests#insertThroughput \
+ *       -Dbench.jdbc-url="jdbc:mysql://localhost:3306/bench?rewriteBatchedStatements=true" \
+ *       -Dbench.user=root -Dbench.password=... -Dbench.rows=10000000
+ *
+ * Each scheme fills its own scratch table shaped like orders and prints rows/s per million
+ * rows, so the slowdown of random keys shows up once the table outgrows the buffer pool.
+ */
+class OrderIdBenchmarkTests {
+
+	private static final int THREADS = 8;
+
+	@Test
+	void idsAreUniqueAndIncreasingPerThread() throws Exception {
+		int perThread = 200_000;
+		List<List<UUID>> generated = new ArrayList<>();
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < THREADS; t++) {
+			List<UUID> ids = new ArrayList<>(perThread);
+			generated.add(ids);
+			threads.add(Thread.ofPlatform().start(() -> {
+				for (int i = 0; i < perThread; i++) {
+					ids.add(TimeOrderedUuids.next());
+				}
+			}));
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		Set<UUID> unique = new HashSet<>();
+		for (List<UUID> ids : generated) {
+			for (int i = 1; i < ids.size(); i++) {
+				// Byte order of BINARY(16) is the unsigned order of the high bits
+				assertTrue(Long.compareUnsigned(ids.get(i - 1).getMostSignificantBits(), ids.get(i).getMostSignificantBits()) < 0);
+			}
+			unique.addAll(ids);
+		}
+		assertEquals(THREADS * perThread, unique.size());
+		UUID id = generated.get(0).get(0);
+		assertEquals(7, id.version());
+		assertEquals(2, id.variant());
+	}
+
+	@Test
+	@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+	void insertThroughput() throws Exception {
+		int rows = Integer.getInteger("bench.rows", 10_000_000);
+		run("bench_orders_random", rows, UUID::randomUUID);
+		run("bench_orders_v7", rows, TimeOrderedUuids::next);
+	}
+
+	private static void run(String table, int rows, Supplier<UUID> ids) throws Exception {
+		int batch = 1_000;
+		int report = 1_000_000;
+		try (Connection connection = DriverManager.getConnection(System.getProperty("bench.jdbc-url"),
+				System.getProperty("bench.user", "root"), System.getProperty("bench.password", ""))) {
+			try (Statement ddl = connection.createStatement()) {
+				ddl.execute("DROP TABLE IF EXISTS " + table);
+				ddl.execute("CREATE TABLE " + table + " (id BINARY(16) NOT NULL PRIMARY KEY, user_id VARCHAR(255), " +
+						"total_amount DECIMAL(38,2), status VARCHAR(16), created_at DATETIME(6), " +
+						"KEY ix_user_created (user_id, created_at))");
+			}
+			connection.setAutoCommit(false);
+			long started = System.nanoTime();
+			long windowStarted = started;
+			try (PreparedStatement insert = connection.prepareStatement("INSERT INTO " + table +
+					" (id, user_id, total_amount, status, created_at) VALUES (?, ?, ?, 'CREATED', NOW(6))")) {
+				for (int row = 1; row <= rows; row++) {
+					insert.setBytes(1, bytes(ids.get()));
+					insert.setString(2, "user-" + (row % 50_000));
+					insert.setBigDecimal(3, BigDecimal.valueOf(row % 10_000, 2));
+					insert.addBatch();
+					if (row % batch == 0) {
+						insert.executeBatch();
+						connection.commit();
+					}
+					if (row % report == 0) {
+						long now = System.nanoTime();
+						System.out.printf("%s: %,d rows, %.0f rows/s over the last %,d%n",
+								table, row, report / ((now - windowStarted) / 1e9), report);
+						windowStarted = now;
+					}
+				}
+				insert.executeBatch();
+				connection.commit();
+			}
+			System.out.printf("%s: %,d rows in %d s%n", table, rows, (System.nanoTime() - started) / 1_000_000_000);
+			try (Statement ddl = connection.createStatement()) {
+				ddl.execute("DROP TABLE " + table);
+			}
+		}
+	}
+
+	private static byte[] bytes(UUID id) {
+		return ByteBuffer.allocate(16)
+				.putLong(id.getMostSignificantBits())
+				.putLong(id.getLeastSignificantBits())
+				.array();
+	}
+}
@@ -0,0 +1,155 @@
+package com.livecommerce.order_service;
+
+import com.livecommerce.order.domain.IdempotencyRecord;
+import com.livecommerce.order.domain.IdempotencyStatus;
+import com.livecommerce.order.domain.Order;
+import com.livecommerce.order.domain.OrderItem;
+import com.livecommerce.order.idempotency.OrderIdempotency;
+import com.livecommerce.order.intake.OrderBatchWriter;
+import com.livecommerce.order.intake.OrderIntake;
+import com.livecommerce.order.intake.OrderIntakeState;
+import com.livecommerce.order.repository.IdempotencyRecordRepository;
+import com.livecommerce.order.repository.OrderRepository;
+import com.livecommerce.order.sales.SalesAccumulator;
+import com.livecommerce.order.service.OrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderIdempotencyTests {
+
+	private IdempotencyRecordRepository repository;
+	private OrderIdempotency idempotency;
+
+	@BeforeEach
+	void setUp() {
+		repository = mock(IdempotencyRecordRepository.class);
+		when(repository.findById(any())).thenReturn(Optional.empty());
+		idempotency = new OrderIdempotency(repository, 24, 1_000, 500);
+	}
+
+	@Test
+	void replaysTheFirstOrderForTheSameKey() {
+		AtomicInteger runs = new AtomicInteger();
+		UUID orderId = UUID.randomUUID();
+
+		OrderIdempotency.Outcome first = idempotency.execute("k1", "fp", () -> {
+			runs.incrementAndGet();
+			return orderId;
+		});
+		OrderIdempotency.Outcome second = idempotency.execute("k1", "fp", () -> {
+			runs.incrementAndGet();
+			return UUID.randomUUID();
+		});
+
+		assertEquals(1, runs.get());
+		assertFalse(first.replayed());
+		assertTrue(second.replayed());
+		assertEquals(orderId, second.orderId());
+		verify(repository).complete("k1", orderId);
+	}
+
+	@Test
+	void replaysFromTheTableAfterARestart() {
+		UUID orderId = UUID.randomUUID();
+		IdempotencyRecord record = new IdempotencyRecord();
+		record.setKey("k1");
+		record.setFingerprint("fp");
+		record.setStatus(IdempotencyStatus.COMPLETED);
+		record.setOrderId(orderId);
+		when(repository.findById("k1")).thenReturn(Optional.of(record));
+
+		OrderIdempotency.Outcome outcome = idempotency.execute("k1", "fp", () -> {
+			throw new AssertionError("must not run again");
+		});
+
+		assertTrue(outcome.replayed());
+		assertEquals(orderId, outcome.orderId());
+	}
+
+	@Test
+	void rejectsTheKeyForADifferentCart() {
+		idempotency.execute("k1", "fp", UUID::randomUUID);
+
+		ResponseStatusException e = assertThrows(ResponseStatusException.class,
+				() -> idempotency.execute("k1", "other", UUID::randomUUID));
+		assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, e.getStatusCode());
+	}
+
+	@Test
+	void failedRequestGivesItsKeyUp() {
+		assertThrows(IllegalStateException.class, () -> idempotency.execute("k1", "fp", () -> {
+			throw new IllegalStateException("product-service down");
+		}));
+		UUID orderId = UUID.randomUUID();
+
+		OrderIdempotency.Outcome retry = idempotency.execute("k1", "fp", () -> orderId);
+
+		assertFalse(retry.replayed());
+		assertEquals(orderId, retry.orderId());
+		verify(repository).release(any(), any());
+	}
+
+	@Test
+	void forgottenKeyRunsAnew() {
+		UUID rejectedOrder = UUID.randomUUID();
+		idempotency.execute("k1", "fp", () -> rejectedOrder);
+
+		idempotency.forget("k1", rejectedOrder);
+		UUID orderId = UUID.randomUUID();
+		OrderIdempotency.Outcome retry = idempotency.execute("k1", "fp", () -> orderId);
+
+		verify(repository).forget("k1", rejectedOrder);
+		assertFalse(retry.replayed());
+		assertEquals(orderId, retry.orderId());
+	}
+
+	@Test
+	void intakeRejectionGivesTheKeyUp() throws Exception {
+		OrderService orderService = mock(OrderService.class);
+		when(orderService.prepareOrder(any())).thenThrow(new RuntimeException("Product 1 stock not sufficient"));
+		OrderIntake intake = new OrderIntake(orderService, mock(OrderBatchWriter.class), mock(OrderRepository.class),
+				mock(SalesAccumulator.class), true, 10, 10, 1, 60_000);
+		CompletableFuture<UUID> forgotten = new CompletableFuture<>();
+		try {
+			OrderIdempotency.Outcome outcome = idempotency.execute("k1", "fp", () -> intake.submit(order(), orderId -> {
+				idempotency.forget("k1", orderId);
+				forgotten.complete(orderId);
+			}).orElseThrow());
+
+			assertEquals(outcome.orderId(), forgotten.get(5, TimeUnit.SECONDS));
+			assertEquals(OrderIntakeState.REJECTED, intake.status(outcome.orderId()).orElseThrow().getState());
+			UUID next = UUID.randomUUID();
+			OrderIdempotency.Outcome retry = idempotency.execute("k1", "fp", () -> next);
+			assertFalse(retry.replayed());
+			assertNotEquals(outcome.orderId(), retry.orderId());
+		} finally {
+			intake.stop();
+		}
+	}
+
+	private static Order order() {
+		Order order = new Order();
+		order.setUserId("u1");
+		order.setItems(List.of(OrderItem.builder().productId(1L).quantity(1).build()));
+		return order;
+	}
+}
@@ -0,0 +1,140 @@
+package com.livecommerce.order_service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Burst load against a running stack (order-service, product-service, MySQL):
+ *
+ *   mvn test -Dbenchmark=true -Dtest=OrderIntakeLoadTests -Dorders.url=http://localhost:8083 \
+ *       -Dorders.burst=5000 -Dorders.productId=1
+ *
+ * Fires the whole burst at once and reports throughput and response-time percentiles.
+ * With order.intake.async=true it also polls the status URLs and reports how long the
+ * writer took until every accepted order was CREATED or REJECTED.
+ */
+class OrderIntakeLoadTests {
+
+	private static final String BASE_URL = System.getProperty("orders.url", "http://localhost:8083");
+	private static final int BURST = Integer.getInteger("orders.burst", 5_000);
+	private static final long PRODUCT_ID = Long.getLong("orders.productId", 1L);
+
+	@Test
+	@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+	void burstOfOrders() throws Exception {
+		HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+		long[] latencies = new long[BURST];
+		AtomicInteger accepted = new AtomicInteger();
+		AtomicInteger created = new AtomicInteger();
+		AtomicInteger refused = new AtomicInteger();
+		AtomicInteger failed = new AtomicInteger();
+		List<String> statusUrls = new ArrayList<>();
+		CountDownLatch start = new CountDownLatch(1);
+		CountDownLatch done = new CountDownLatch(BURST);
+
+		long began;
+		try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int i = 0; i < BURST; i++) {
+				int n = i;
+				clients.execute(() -> {
+					try {
+						start.await();
+						HttpRequest request = HttpRequest.newBuilder(URI.create(BASE_URL + "/api/orders"))
+								.header("Content-Type", "application/json")
+								.POST(HttpRequest.BodyPublishers.ofString(
+										"{\"userId\":\"load-" + n + "\",\"items\":[{\"productId\":" + PRODUCT_ID + ",\"quantity\":1}]}"))
+								.build();
+						long sent = System.nanoTime();
+						HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+						latencies[n] = System.nanoTime() - sent;
+						switch (response.statusCode()) {
+							case 202 -> {
+								accepted.incrementAndGet();
+								synchronized (statusUrls) {
+									statusUrls.add(response.headers().firstValue("Location").orElseThrow());
+								}
+							}
+							case 200 -> created.incrementAndGet();
+							case 503 -> refused.incrementAndGet();
+							default -> failed.incrementAndGet();
+						}
+					} catch (Exception e) {
+						failed.incrementAndGet();
+					} finally {
+						done.countDown();
+					}
+				});
+			}
+			began = System.nanoTime();
+			start.countDown();
+			done.await();
+		}
+		long burstNanos = System.nanoTime() - began;
+
+		Arrays.sort(latencies);
+		System.out.printf("burst: %d requests in %d ms (%.0f req/s)%n",
+				BURST, burstNanos / 1_000_000, BURST / (burstNanos / 1e9));
+		System.out.printf("responses: %d accepted, %d created, %d refused (503), %d failed%n",
+				accepted.get(), created.get(), refused.get(), failed.get());
+		System.out.printf("latency: p50 %d ms, p99 %d ms, p99.9 %d ms, max %d ms%n",
+				percentile(latencies, 0.50), percentile(latencies, 0.99),
+				percentile(latencies, 0.999), latencies[BURST - 1] / 1_000_000);
+
+		if (!statusUrls.isEmpty()) {
+			awaitSettled(http, statusUrls, began);
+		}
+		assertEquals(BURST, accepted.get() + created.get() + refused.get() + failed.get());
+	}
+
+	// Polls every status URL until none is QUEUED any more
+	private static void awaitSettled(HttpClient http, List<String> statusUrls, long began) throws Exception {
+		ConcurrentHashMap<String, String> pending = new ConcurrentHashMap<>();
+		statusUrls.forEach(url -> pending.put(url, "QUEUED"));
+		AtomicInteger rejected = new AtomicInteger();
+		long deadline = System.nanoTime() + Duration.ofMinutes(2).toNanos();
+		while (!pending.isEmpty() && System.nanoTime() < deadline) {
+			try (ExecutorService pollers = Executors.newVirtualThreadPerTaskExecutor()) {
+				for (String url : List.copyOf(pending.keySet())) {
+					pollers.execute(() -> {
+						try {
+							String body = http.send(HttpRequest.newBuilder(URI.create(BASE_URL + url)).build(),
+									HttpResponse.BodyHandlers.ofString()).body();
+							if (!body.contains("\"QUEUED\"")) {
+								pending.remove(url);
+								if (body.contains("\"REJECTED\"")) {
+									rejected.incrementAndGet();
+								}
+							}
+						} catch (Exception ignored) {
+							// Polled again next round
+						}
+					});
+				}
+			}
+			Thread.sleep(50);
+		}
+		System.out.printf("settled: %d orders in %d ms after the burst started (%d rejected, %d still queued)%n",
+				statusUrls.size() - pending.size(), (System.nanoTime() - began) / 1_000_000,
+				rejected.get(), pending.size());
+	}
+
+	private static long percentile(long[] sorted, double p) {
+		return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)] / 1_000_000;
+	}
+}
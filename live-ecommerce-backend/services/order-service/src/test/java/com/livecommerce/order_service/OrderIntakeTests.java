@@ -0,0 +1,162 @@
+package com.livecommerce.order_service;
+
+import com.livecommerce.order.domain.Order;
+import com.livecommerce.order.domain.OrderItem;
+import com.livecommerce.order.intake.OrderBatchWriter;
+import com.livecommerce.order.intake.OrderIntake;
+import com.livecommerce.order.intake.OrderIntakeState;
+import com.livecommerce.order.intake.OrderIntakeStatus;
+import com.livecommerce.order.repository.OrderRepository;
+import com.livecommerce.order.sales.SalesAccumulator;
+import com.livecommerce.order.service.OrderService;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderIntakeTests {
+
+	private final OrderService orderService = mock(OrderService.class);
+	private final OrderBatchWriter orderBatchWriter = mock(OrderBatchWriter.class);
+	private final SalesAccumulator salesAccumulator = mock(SalesAccumulator.class);
+	// Copies of every list handed to the writer, in call order; the intake reuses its batch list
+	private final List<List<String>> writes = new CopyOnWriteArrayList<>();
+
+	@Test
+	void writerRunsOnlyForAsyncIntake() throws Exception {
+		OrderIntake sync = intake(false, 10, 10, 1);
+		assertFalse(writerAlive());
+		sync.stop();
+
+		OrderIntake async = intake(true, 10, 10, 1);
+		assertTrue(writerAlive());
+		async.stop();
+		assertFalse(writerAlive());
+	}
+
+	@Test
+	void ordersThatArriveWithinTheLingerShareOneCommit() throws Exception {
+		recordWrites();
+		OrderIntake intake = intake(true, 10, 3, 2_000);
+
+		intake.submit(order("a"));
+		intake.submit(order("b"));
+		intake.submit(order("c"));
+
+		verify(salesAccumulator, timeout(5_000).times(3)).ordered(any());
+		// A full batch goes out without waiting for the rest of the linger
+		assertEquals(1, writes.size());
+		assertEquals(3, writes.get(0).size());
+		intake.stop();
+	}
+
+	@Test
+	void failedGroupCommitFallsBackToOneByOne() throws Exception {
+		recordWrites();
+		doThrow(new RuntimeException("duplicate key")).when(orderBatchWriter)
+				.write(argThat(batch -> batch.stream().anyMatch(o -> o.getUserId().equals("bad"))));
+		OrderIntake intake = intake(true, 10, 3, 2_000);
+
+		UUID good = intake.submit(order("good")).orElseThrow();
+		UUID bad = intake.submit(order("bad")).orElseThrow();
+		UUID other = intake.submit(order("other")).orElseThrow();
+
+		verify(orderService, timeout(5_000)).cancelPreparedOrder(argThat(o -> o.getId().equals(bad)));
+		verify(salesAccumulator, timeout(5_000).times(2)).ordered(any());
+		assertEquals(OrderIntakeState.REJECTED, intake.status(bad).map(OrderIntakeStatus::getState).orElseThrow());
+		assertTrue(intake.status(good).isEmpty());
+		assertTrue(intake.status(other).isEmpty());
+		intake.stop();
+	}
+
+	@Test
+	void failureAfterTheCommitNeitherRetriesNorCancels() throws Exception {
+		recordWrites();
+		doThrow(new RuntimeException("sales table down")).when(salesAccumulator).ordered(any());
+		OrderIntake intake = intake(true, 10, 2, 2_000);
+
+		UUID first = intake.submit(order("a")).orElseThrow();
+		intake.submit(order("b"));
+
+		verify(salesAccumulator, timeout(5_000).times(2)).ordered(any());
+		intake.stop();
+		assertEquals(1, writes.size());
+		verify(orderService, never()).cancelPreparedOrder(any());
+		assertTrue(intake.status(first).isEmpty());
+	}
+
+	@Test
+	void rejectedOrderReportsWhyAndFreesItsSlot() throws Exception {
+		when(orderService.prepareOrder(any())).thenThrow(new RuntimeException("Insufficient stock"));
+		OrderIntake intake = intake(true, 1, 10, 1);
+		CountDownLatch rejected = new CountDownLatch(1);
+
+		UUID orderId = intake.submit(order("a"), id -> rejected.countDown()).orElseThrow();
+
+		assertTrue(rejected.await(5, TimeUnit.SECONDS));
+		Optional<OrderIntakeStatus> status = intake.status(orderId);
+		assertEquals(OrderIntakeState.REJECTED, status.map(OrderIntakeStatus::getState).orElseThrow());
+		assertEquals("Insufficient stock", status.get().getReason());
+		assertTrue(intake.submit(order("b")).isPresent(), "the rejected order's slot should be free again");
+		verify(orderBatchWriter, never()).write(anyList());
+		intake.stop();
+	}
+
+	@Test
+	void fullIntakeRefuses() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		when(orderService.prepareOrder(any())).thenAnswer(invocation -> {
+			release.await();
+			return invocation.getArgument(0);
+		});
+		OrderIntake intake = intake(true, 1, 10, 1);
+
+		assertTrue(intake.submit(order("a")).isPresent());
+		assertTrue(intake.submit(order("b")).isEmpty());
+		release.countDown();
+		intake.stop();
+	}
+
+	private void recordWrites() {
+		doAnswer(invocation -> {
+			List<Order> batch = invocation.getArgument(0);
+			writes.add(batch.stream().map(Order::getUserId).toList());
+			return null;
+		}).when(orderBatchWriter).write(anyList());
+	}
+
+	private OrderIntake intake(boolean async, int capacity, int batchSize, long lingerMs) {
+		return new OrderIntake(orderService, orderBatchWriter, mock(OrderRepository.class),
+				salesAccumulator, async, capacity, batchSize, lingerMs, 60_000);
+	}
+
+	private static Order order(String userId) {
+		List<OrderItem> items = new ArrayList<>();
+		items.add(OrderItem.builder().productId(1L).quantity(1).build());
+		return Order.builder().userId(userId).items(items).build();
+	}
+
+	private static boolean writerAlive() {
+		return Thread.getAllStackTraces().keySet().stream()
+				.anyMatch(thread -> thread.getName().equals("order-intake-writer") && thread.isAlive());
+	}
+}
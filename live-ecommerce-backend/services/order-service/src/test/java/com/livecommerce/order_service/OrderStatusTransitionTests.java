@@ -0,0 +1,124 @@
+package com.livecommerce.order_service;
+
+import com.livecommerce.order.client.ProductClient;
+import com.livecommerce.order.client.ProductResolver;
+import com.livecommerce.order.domain.Order;
+import com.livecommerce.order.domain.OrderStatus;
+import com.livecommerce.order.repository.OrderRepository;
+import com.livecommerce.order.request.OrderStatusChange;
+import com.livecommerce.order.response.BulkStatusResult;
+import com.livecommerce.order.sales.SalesAccumulator;
+import com.livecommerce.order.service.impl.OrderServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderStatusTransitionTests {
+
+	private OrderRepository orderRepository;
+	private ProductClient productClient;
+	private OrderServiceImpl orderService;
+
+	@BeforeEach
+	void setUp() {
+		orderRepository = mock(OrderRepository.class);
+		productClient = mock(ProductClient.class);
+		orderService = new OrderServiceImpl(orderRepository, productClient, mock(ProductResolver.class), mock(SalesAccumulator.class));
+		when(orderRepository.save(any(Order.class))).thenAnswer(call -> call.getArgument(0));
+	}
+
+	@Test
+	void statusesMoveOneStepForwardOnly() {
+		assertTrue(OrderStatus.CREATED.canMoveTo(OrderStatus.PAID));
+		assertTrue(OrderStatus.PAID.canMoveTo(OrderStatus.SHIPPED));
+		assertTrue(OrderStatus.SHIPPED.canMoveTo(OrderStatus.DELIVERED));
+		assertFalse(OrderStatus.CREATED.canMoveTo(OrderStatus.SHIPPED));
+		assertFalse(OrderStatus.DELIVERED.canMoveTo(OrderStatus.CREATED));
+		assertFalse(OrderStatus.PAID.canMoveTo(OrderStatus.PAID));
+		assertFalse(OrderStatus.PAID.canMoveTo(null));
+		assertEquals(EnumSet.of(OrderStatus.SHIPPED), OrderStatus.DELIVERED.sources());
+		assertTrue(OrderStatus.CREATED.sources().isEmpty());
+	}
+
+	@Test
+	void rejectsInvalidTransitionWithoutTouchingTheHold() {
+		Order order = order(OrderStatus.CREATED);
+
+		assertThrows(RuntimeException.class, () -> orderService.updateOrderStatus(order.getId(), OrderStatus.DELIVERED));
+		verify(productClient, never()).confirmHold(any());
+		verify(orderRepository, never()).save(any());
+	}
+
+	@Test
+	void paymentCanBeRetriedAfterTheSaveFailed() {
+		Order order = order(OrderStatus.CREATED);
+		when(orderRepository.save(any(Order.class)))
+				.thenThrow(new ObjectOptimisticLockingFailureException(Order.class, order.getId()))
+				.thenAnswer(call -> call.getArgument(0));
+
+		assertThrows(ObjectOptimisticLockingFailureException.class,
+				() -> orderService.updateOrderStatus(order.getId(), OrderStatus.PAID));
+		order.setStatus(OrderStatus.CREATED);
+		Order paid = orderService.updateOrderStatus(order.getId(), OrderStatus.PAID);
+
+		assertEquals(OrderStatus.PAID, paid.getStatus());
+		// product-service treats the second confirm of the same hold as success
+		verify(productClient, times(2)).confirmHold("hold-1");
+	}
+
+	@Test
+	void bulkGroupsByTargetAndSkipsPaid() {
+		UUID a = UUID.randomUUID();
+		UUID b = UUID.randomUUID();
+		UUID c = UUID.randomUUID();
+		when(orderRepository.transition(anyCollection(), eq(Set.of(OrderStatus.PAID)), eq(OrderStatus.SHIPPED), any()))
+				.thenReturn(2);
+		when(orderRepository.transition(anyCollection(), eq(Set.of(OrderStatus.SHIPPED)), eq(OrderStatus.DELIVERED), any()))
+				.thenReturn(0);
+
+		BulkStatusResult result = orderService.updateOrderStatuses(List.of(
+				new OrderStatusChange(a, OrderStatus.SHIPPED),
+				new OrderStatusChange(b, OrderStatus.SHIPPED),
+				new OrderStatusChange(b, OrderStatus.SHIPPED),
+				new OrderStatusChange(c, OrderStatus.DELIVERED),
+				new OrderStatusChange(c, OrderStatus.PAID)));
+
+		verify(orderRepository).transition(eq(Set.of(a, b)), eq(Set.of(OrderStatus.PAID)), eq(OrderStatus.SHIPPED), any());
+		verify(orderRepository).transition(eq(Set.of(c)), eq(Set.of(OrderStatus.SHIPPED)), eq(OrderStatus.DELIVERED), any());
+		verify(orderRepository, times(2)).transition(anyCollection(), any(), any(), any());
+		assertEquals(5, result.getRequested());
+		assertEquals(2, result.getApplied());
+		assertEquals(3, result.getRejected());
+		assertEquals(2, result.getAppliedByStatus().get(OrderStatus.SHIPPED));
+	}
+
+	private Order order(OrderStatus status) {
+		Order order = Order.builder()
+				.id(UUID.randomUUID())
+				.status(status)
+				.stockHoldId("hold-1")
+				.version(0L)
+				.build();
+		when(orderRepository.findWithItemsById(order.getId())).thenReturn(Optional.of(order));
+		return order;
+	}
+}
@@ -0,0 +1,82 @@
+package com.livecommerce.order_service;
+
+import com.livecommerce.order.client.LastKnownInstancesSupplier;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.RoundRobinLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Flux;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The default balancer on top of LastKnownInstancesSupplier, as ProductLoadBalancerConfiguration wires it
+class ProductClientLoadBalancingTests {
+
+	private static final ServiceInstance PRODUCT_SERVICE = new DefaultServiceInstance("product-service-1",
+			"product-service", "10.0.0.5", 8082, false);
+
+	@Test
+	void keepsCallingTheLastKnownInstanceWhileRegistryIsDown() {
+		AtomicInteger registryCalls = new AtomicInteger();
+		RoundRobinLoadBalancer balancer = balancer(new LastKnownInstancesSupplier(
+				supplier(() -> switch (registryCalls.incrementAndGet()) {
+					case 1 -> Flux.just(List.of(PRODUCT_SERVICE));
+					case 2 -> Flux.just(List.<ServiceInstance>of());
+					default -> Flux.error(new IllegalStateException("registry unavailable"));
+				}), List.of()));
+
+		for (int i = 0; i < 5; i++) {
+			assertEquals(PRODUCT_SERVICE.getUri(), choose(balancer));
+		}
+	}
+
+	@Test
+	void usesFallbackUrlsUntilDiscoveryAnswers() {
+		List<ServiceInstance> discovered = new CopyOnWriteArrayList<>();
+		RoundRobinLoadBalancer balancer = balancer(new LastKnownInstancesSupplier(
+				supplier(() -> Flux.just(List.copyOf(discovered))), List.of(URI.create("http://localhost:8082"))));
+
+		assertEquals(URI.create("http://localhost:8082"), choose(balancer));
+
+		discovered.add(PRODUCT_SERVICE);
+		assertEquals(PRODUCT_SERVICE.getUri(), choose(balancer));
+	}
+
+	private static RoundRobinLoadBalancer balancer(ServiceInstanceListSupplier supplier) {
+		StaticListableBeanFactory beans = new StaticListableBeanFactory(Map.of("productInstanceSupplier", supplier));
+		return new RoundRobinLoadBalancer(beans.getBeanProvider(ServiceInstanceListSupplier.class), "product-service");
+	}
+
+	private static URI choose(RoundRobinLoadBalancer balancer) {
+		Response<ServiceInstance> chosen = balancer.choose(new DefaultRequest<>(new RequestDataContext())).block();
+		assertTrue(chosen != null && chosen.hasServer(), "no instance chosen");
+		return chosen.getServer().getUri();
+	}
+
+	private static ServiceInstanceListSupplier supplier(Supplier<Flux<List<ServiceInstance>>> instances) {
+		return new ServiceInstanceListSupplier() {
+			@Override
+			public String getServiceId() {
+				return "product-service";
+			}
+
+			@Override
+			public Flux<List<ServiceInstance>> get() {
+				return Flux.defer(instances);
+			}
+		};
+	}
+}
@@ -0,0 +1,157 @@
+package com.livecommerce.order_service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.livecommerce.order.client.ProductClient;
+import com.livecommerce.order.client.ResilientFeignClient;
+import com.livecommerce.order.client.RetryBudget;
+import com.sun.net.httpserver.HttpServer;
+import feign.Feign;
+import feign.FeignException;
+import feign.Request;
+import feign.Retryer;
+import feign.http2client.Http2Client;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntUnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// ProductClient over ResilientFeignClient against a local stub product-service that injects latency and errors
+class ProductClientTransportTests {
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private HttpServer stub;
+	private final AtomicInteger calls = new AtomicInteger();
+	// call number (1-based) -> delay in ms; negative means answer 503 instead
+	private volatile IntUnaryOperator behaviour = call -> 0;
+	private SimpleMeterRegistry registry;
+
+	@BeforeEach
+	void startStub() throws Exception {
+		stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		stub.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+		stub.createContext("/api/products/", exchange -> {
+			int delay = behaviour.applyAsInt(calls.incrementAndGet());
+			try {
+				Thread.sleep(Math.max(0, delay));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			byte[] body = "{\"id\":1,\"name\":\"p1\",\"price\":10.00,\"stock\":5}".getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().add("Content-Type", "application/json");
+			exchange.sendResponseHeaders(delay < 0 ? 503 : 200, body.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		});
+		stub.start();
+		registry = new SimpleMeterRegistry();
+	}
+
+	@AfterEach
+	void stopStub() {
+		stub.stop(0);
+	}
+
+	@Test
+	void retriesGetsThatGotServiceUnavailable() {
+		behaviour = call -> call == 1 ? -1 : 0;
+		ProductClient client = client(0, 2_000);
+
+		assertEquals("p1", client.getProductById(1L).name);
+		assertEquals(2, calls.get());
+		assertEquals(1.0, registry.get("http.client.feign.retries").counter().count());
+		client.getProductById(1L);
+		assertEquals(2, registry.get("http.client.feign.requests").timer().count());
+	}
+
+	@Test
+	void hedgesSlowGets() {
+		// The first attempt outlives the deadline, so only the hedge can answer in time
+		behaviour = call -> call == 1 ? 30_000 : 5;
+		ProductClient client = client(50, 5_000);
+
+		assertEquals("p1", client.getProductById(1L).name);
+
+		assertEquals(2, calls.get());
+		assertEquals(1.0, registry.get("http.client.feign.hedges").counter().count());
+	}
+
+	@Test
+	void deadlineBoundsSlowCalls() {
+		behaviour = call -> 2_000;
+		ProductClient client = client(0, 300);
+
+		long started = System.nanoTime();
+		assertThrows(FeignException.class, () -> client.getProductById(1L));
+		long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+		assertTrue(elapsedMs < 1_500, "call should give up at its deadline, took " + elapsedMs + " ms");
+	}
+
+	@Test
+	@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+	void tailLatencyWithAndWithoutHedging() throws Exception {
+		// 5% of calls stall for 400 ms, the rest answer in 5 ms
+		behaviour = call -> ThreadLocalRandom.current().nextInt(100) < 5 ? 400 : 5;
+		for (long hedgeDelayMs : new long[]{0, 30}) {
+			registry = new SimpleMeterRegistry();
+			ProductClient client = client(hedgeDelayMs, 2_000);
+			List<Runnable> callers = new ArrayList<>();
+			for (int i = 0; i < 2_000; i++) {
+				callers.add(() -> client.getProductById(1L));
+			}
+			try (ExecutorService executor = Executors.newFixedThreadPool(32)) {
+				callers.forEach(executor::execute);
+			}
+			Timer timer = registry.get("http.client.feign.requests").timer();
+			StringBuilder percentiles = new StringBuilder();
+			for (ValueAtPercentile value : timer.takeSnapshot().percentileValues()) {
+				percentiles.append(String.format(" p%.0f=%.1fms", value.percentile() * 100, value.value(TimeUnit.MILLISECONDS)));
+			}
+			System.out.printf("hedge-delay %d ms: %d calls,%s, max=%.1fms, hedges=%.0f%n",
+					hedgeDelayMs, timer.count(), percentiles, timer.max(TimeUnit.MILLISECONDS),
+					registry.get("http.client.feign.hedges").counter().count());
+		}
+	}
+
+	private ProductClient client(long hedgeDelayMs, long deadlineMs) {
+		HttpClient httpClient = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_2)
+				.connectTimeout(Duration.ofMillis(500))
+				.followRedirects(HttpClient.Redirect.ALWAYS)
+				.executor(Executors.newVirtualThreadPerTaskExecutor())
+				.build();
+		ResilientFeignClient transport = new ResilientFeignClient(new Http2Client(httpClient), registry, "product-service",
+				deadlineMs, 3, hedgeDelayMs, 10, new RetryBudget(10, 20));
+		return Feign.builder()
+				.client(transport)
+				.contract(new SpringMvcContract())
+				.decoder((response, type) -> MAPPER.readValue(response.body().asInputStream(), MAPPER.constructType(type)))
+				.retryer(Retryer.NEVER_RETRY)
+				.options(new Request.Options(500, TimeUnit.MILLISECONDS, 1_000, TimeUnit.MILLISECONDS, true))
+				.target(ProductClient.class, "http://127.0.0.1:" + stub.getAddress().getPort());
+	}
+}
@@ -0,0 +1,170 @@
+package com.livecommerce.order_service;
+
+import com.livecommerce.order.client.ProductClient;
+import com.livecommerce.order.client.ProductResolver;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProductResolverBenchmarkTests {
+
+	private static final long LATENCY_MS = 20;
+
+	@Test
+	void fetchesEachProductOnceInRequestOrder() {
+		StubProductClient client = new StubProductClient(LATENCY_MS);
+		ProductResolver resolver = new ProductResolver(client, 2, 2, 5_000);
+
+		Map<Long, ProductClient.ProductDto> products = resolver.resolve(List.of(3L, 1L, 3L, 2L, 5L, 4L, 6L));
+
+		assertEquals(List.of(3L, 1L, 2L, 5L, 4L, 6L), List.copyOf(products.keySet()));
+		assertEquals(3, client.calls.get());
+		assertTrue(client.maxInFlight.get() <= 2);
+		resolver.stop();
+	}
+
+	@Test
+	void failsOnMissingProductsAndAfterTheDeadline() {
+		ProductResolver resolver = new ProductResolver(new StubProductClient(LATENCY_MS), 8, 100, 5_000);
+		assertThrows(RuntimeException.class, () -> resolver.resolve(List.of(1L, StubProductClient.MISSING)));
+		resolver.stop();
+
+		ProductResolver slow = new ProductResolver(new StubProductClient(1_000), 8, 1, 50);
+		assertThrows(RuntimeException.class, () -> slow.resolve(List.of(1L, 2L, 3L)));
+		slow.stop();
+	}
+
+	@Test
+	void singleBatchHasTheSameDeadline() {
+		ProductResolver slow = new ProductResolver(new StubProductClient(1_000), 8, 100, 50);
+
+		long start = System.nanoTime();
+		assertThrows(RuntimeException.class, () -> slow.resolve(List.of(1L, 2L, 3L)));
+
+		assertTrue((System.nanoTime() - start) / 1_000_000 < 900, "lookup should give up at the deadline");
+		slow.stop();
+	}
+
+	// mvn test -Dtest=ProductResolverBenchmarkTests -Dbenchmark=true
+	// One request per item, one batch request per cart, and batches of 20 fetched side by side
+	@Test
+	@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+	void cartLatencyPerItemVersusBatched() {
+		StubProductClient client = new StubProductClient(LATENCY_MS);
+		ProductResolver oneBatch = new ProductResolver(client, 16, 1_000, 10_000);
+		ProductResolver chunked = new ProductResolver(client, 16, 20, 10_000);
+		for (int items : new int[]{1, 10, 50, 200, 500}) {
+			List<Long> cart = LongStream.rangeClosed(1, items).boxed().toList();
+
+			long start = System.nanoTime();
+			for (Long id : cart) {
+				client.getProductById(id);
+			}
+			long sequential = (System.nanoTime() - start) / 1_000_000;
+
+			start = System.nanoTime();
+			oneBatch.resolve(cart);
+			long batched = (System.nanoTime() - start) / 1_000_000;
+
+			client.calls.set(0);
+			start = System.nanoTime();
+			chunked.resolve(cart);
+			long parallel = (System.nanoTime() - start) / 1_000_000;
+
+			System.out.printf("items=%d per-call=%dms one-by-one=%dms one-batch=%dms %d-batches-parallel=%dms%n",
+					items, LATENCY_MS, sequential, batched, client.calls.get(), parallel);
+		}
+		oneBatch.stop();
+		chunked.stop();
+	}
+
+	private static final class StubProductClient implements ProductClient {
+
+		static final long MISSING = -1L;
+		// Server side cost of each id in a request, on top of the round trip
+		static final Duration PER_ID = Duration.ofNanos(200_000);
+
+		private final long latencyMs;
+		private final AtomicInteger calls = new AtomicInteger();
+		private final AtomicInteger inFlight = new AtomicInteger();
+		private final AtomicInteger maxInFlight = new AtomicInteger();
+
+		private StubProductClient(long latencyMs) {
+			this.latencyMs = latencyMs;
+		}
+
+		@Override
+		public ProductDto getProductById(Long id) {
+			call(1);
+			return product(id);
+		}
+
+		@Override
+		public ProductBatch getProductsByIds(List<Long> ids) {
+			call(ids.size());
+			ProductBatch batch = new ProductBatch();
+			batch.products = ids.stream().filter(id -> id != MISSING).map(StubProductClient::product).toList();
+			batch.missingIds = ids.stream().filter(id -> id == MISSING).toList();
+			return batch;
+		}
+
+		@Override
+		public ProductBatch getProductsByIdsPost(List<Long> ids) {
+			return getProductsByIds(ids);
+		}
+
+		private void call(int ids) {
+			calls.incrementAndGet();
+			maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+			try {
+				Thread.sleep(Duration.ofMillis(latencyMs).plus(PER_ID.multipliedBy(ids)));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RuntimeException(e);
+			} finally {
+				inFlight.decrementAndGet();
+			}
+		}
+
+		private static ProductDto product(Long id) {
+			ProductDto product = new ProductDto();
+			product.id = id;
+			product.name = "Product " + id;
+			product.price = BigDecimal.TEN;
+			product.stock = 100;
+			return product;
+		}
+
+		@Override
+		public void reduceStock(Long productId, Integer quantity) {
+		}
+
+		@Override
+		public StockReservationResult reserveStock(List<StockReservationLine> lines) {
+			return new StockReservationResult();
+		}
+
+		@Override
+		public StockHoldResult placeHold(StockHoldRequest request) {
+			return new StockHoldResult();
+		}
+
+		@Override
+		public void confirmHold(String holdId) {
+		}
+
+		@Override
+		public void releaseHold(String holdId) {
+		}
+	}
+}
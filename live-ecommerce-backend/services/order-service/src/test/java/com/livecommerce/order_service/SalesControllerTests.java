@@ -0,0 +1,40 @@
+package com.livecommerce.order_service;
+
+import com.livecommerce.order.controller.SalesController;
+import com.livecommerce.order.sales.SalesReports;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class SalesControllerTests {
+
+	private final SalesReports salesReports = mock(SalesReports.class);
+	private final SalesController controller = new SalesController(salesReports);
+
+	@Test
+	void acceptsRankingInAnyCase() {
+		controller.getTopProducts(null, null, "Units", 10);
+
+		verify(salesReports).topProducts(any(), any(), eq(SalesReports.Ranking.UNITS), eq(10));
+	}
+
+	@Test
+	void unknownOptionsAreBadRequests() {
+		ResponseStatusException by = assertThrows(ResponseStatusException.class,
+				() -> controller.getTopProducts(null, null, "profit", 10));
+		ResponseStatusException granularity = assertThrows(ResponseStatusException.class,
+				() -> controller.getTimeline(null, null, null, "week"));
+
+		assertEquals(HttpStatus.BAD_REQUEST, by.getStatusCode());
+		assertEquals(HttpStatus.BAD_REQUEST, granularity.getStatusCode());
+		verifyNoInteractions(salesReports);
+	}
+}
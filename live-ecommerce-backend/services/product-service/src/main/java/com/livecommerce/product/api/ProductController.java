@@ -2,13 +2,33 @@ package com.livecommerce.product.api;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.livecommerce.product.domain.Product;
+import com.livecommerce.product.dto.CategoryFacet;
+import com.livecommerce.product.dto.ProductBatch;
+import com.livecommerce.product.dto.ProductImportFormat;
+import com.livecommerce.product.dto.ProductImportResult;
+import com.livecommerce.product.dto.ProductSearchPage;
+import com.livecommerce.product.dto.ProductSummary;
+import com.livecommerce.product.dto.StockHoldRequest;
+import com.livecommerce.product.dto.StockHoldResult;
+import com.livecommerce.product.dto.StockReservationLine;
+import com.livecommerce.product.dto.StockReservationResult;
+import com.livecommerce.product.live.LiveProductsSnapshot;
+import com.livecommerce.product.search.SearchCursor;
 import com.livecommerce.product.service.ProductService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -16,20 +36,102 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ProductController {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_BATCH_IDS = 500;
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final ProductService productService;
+    private final ObjectMapper objectMapper;
 
-    // 🔹 Get all products / filter / search
+    // 🔹 Get all products / filter / search, one keyset page at a time
+    // Next page cursor comes back in X-Next-Cursor and a Link rel="next" header; pass it back as after.
+    // Without after and limit the whole list comes back unpaged, as the existing frontends expect
     @GetMapping
-    public ResponseEntity<List<Product>> getProducts(
+    public ResponseEntity<List<ProductSummary>> getProducts(
             @RequestParam(required = false) String category,
-            @RequestParam(required = false) String search
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit
     ) {
-        if (category != null) {
-            return ResponseEntity.ok(productService.getProductsByCategory(category));
-        } else if (search != null) {
-            return ResponseEntity.ok(productService.searchProducts(search));
+        boolean paged = after != null || limit != null;
+        int pageSize = paged
+                ? Math.max(1, Math.min(limit != null ? limit : DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE))
+                : Integer.MAX_VALUE;
+        List<ProductSummary> page;
+        String nextCursor = null;
+        try {
+            if (search != null && category == null) {
+                // Ranked, so the cursor is the last hit's score and id
+                ProductSearchPage hits = productService.searchProducts(search,
+                        after != null ? SearchCursor.parse(after) : null, pageSize);
+                page = hits.getProducts();
+                nextCursor = hits.getNextCursor();
+            } else {
+                Long afterId = after != null ? Long.valueOf(after) : null;
+                page = category != null
+                        ? productService.getProductsByCategory(category, afterId, pageSize)
+                        : productService.getAllProducts(afterId, pageSize);
+                if (page.size() == pageSize) {
+                    nextCursor = String.valueOf(page.get(page.size() - 1).getId());
+                }
+            }
+        } catch (NumberFormatException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (paged && nextCursor != null) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("after", nextCursor)
+                    .replaceQueryParam("limit", pageSize)
+                    .toUriString();
+            response.header("X-Next-Cursor", nextCursor)
+                    .header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(page);
+    }
+
+    // 🔹 Several products by id in one call: ?ids=1,2,3
+    @GetMapping(params = "ids")
+    public ResponseEntity<ProductBatch> getProductsByIds(@RequestParam List<Long> ids) {
+        return getProductBatch(ids);
+    }
+
+    // 🔹 Same as ?ids= for sets too long for a URL
+    @PostMapping("/batch")
+    public ResponseEntity<ProductBatch> getProductsByIdsPost(@RequestBody List<Long> ids) {
+        return getProductBatch(ids);
+    }
+
+    private ResponseEntity<ProductBatch> getProductBatch(List<Long> ids) {
+        if (ids.size() > MAX_BATCH_IDS || ids.contains(null)) {
+            return ResponseEntity.badRequest().build();
         }
-        return ResponseEntity.ok(productService.getAllProducts());
+        return ResponseEntity.ok(productService.getProductsByIds(ids));
+    }
+
+    // 🔹 Whole catalog as NDJSON, written row by row while the DB cursor is read
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(@RequestParam(required = false) String category) {
+        StreamingResponseBody body = out -> productService.exportProducts(category, out);
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
+    // 🔹 Per-category product, live and in-stock counts for the storefront filter
+    @GetMapping("/facets")
+    public ResponseEntity<List<CategoryFacet>> getCategoryFacets() {
+        return ResponseEntity.ok(productService.getCategoryFacets());
+    }
+
+    // 🔹 Bulk import: CSV (with header row) or NDJSON body, read as it streams in
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<ProductImportResult> importProducts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body
+    ) throws IOException {
+        ProductImportFormat format = NDJSON.isCompatibleWith(contentType) ? ProductImportFormat.NDJSON : ProductImportFormat.CSV;
+        return ResponseEntity.ok(productService.importProducts(body, format));
     }
 
     // 🔹 Get product by ID
@@ -39,9 +141,18 @@ public class ProductController {
     }
 
     // 🔹 Get only live products
+    // Pre-serialized snapshot; pollers sending If-None-Match get a 304 until it changes
     @GetMapping("/live")
-    public ResponseEntity<List<Product>> getLiveProducts() {
-        return ResponseEntity.ok(productService.getLiveProducts());
+    public ResponseEntity<byte[]> getLiveProducts(WebRequest request) {
+        LiveProductsSnapshot.Snapshot snapshot = productService.getLiveProductsSnapshot();
+        if (request.checkNotModified(snapshot.etag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(snapshot.etag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(snapshot.body());
     }
 
     // 🔹 Create product with image (multipart/form-data)
@@ -51,7 +162,6 @@ public class ProductController {
             @RequestPart(value = "image", required = false) MultipartFile imageFile
     ) {
         try {
-            ObjectMapper objectMapper = new ObjectMapper();
             Product product = objectMapper.readValue(productJson, Product.class);
             Product savedProduct = productService.createProduct(product, imageFile);
             return ResponseEntity.ok(savedProduct);
@@ -69,8 +179,7 @@ public class ProductController {
     ) {
         try {
             // Convert JSON string to Product object manually
-            ObjectMapper mapper = new ObjectMapper();
-            Product product = mapper.readValue(productJson, Product.class);
+            Product product = objectMapper.readValue(productJson, Product.class);
 
             Product updated = productService.updateProduct(id, product, imageFile);
             return ResponseEntity.ok(updated);
@@ -95,4 +204,34 @@ public class ProductController {
         productService.reduceStock(productId, quantity);
         return ResponseEntity.ok().build();
     }
+
+    // 🔹 Reserve stock for several products at once (all or nothing)
+    @PostMapping("/stock/reservations")
+    public ResponseEntity<StockReservationResult> reserveStock(@RequestBody List<StockReservationLine> lines) {
+        StockReservationResult result = productService.reserveStock(lines);
+        return ResponseEntity.status(result.isReserved() ? HttpStatus.OK : HttpStatus.CONFLICT).body(result);
+    }
+
+    // 🔹 Hold stock for a checkout; given back automatically unless confirmed before it expires
+    @PostMapping("/stock/holds")
+    public ResponseEntity<StockHoldResult> placeHold(@RequestBody StockHoldRequest request) {
+        StockHoldResult result = productService.placeHold(request);
+        return ResponseEntity.status(result.isReserved() ? HttpStatus.OK : HttpStatus.CONFLICT).body(result);
+    }
+
+    // 🔹 Make a hold permanent (order paid); 409 once it has expired or been released
+    @PostMapping("/stock/holds/{holdId}/confirm")
+    public ResponseEntity<Void> confirmHold(@PathVariable String holdId) {
+        return productService.confirmHold(holdId)
+                ? ResponseEntity.ok().build()
+                : ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+
+    // 🔹 Give held stock back early (checkout abandoned)
+    @DeleteMapping("/stock/holds/{holdId}")
+    public ResponseEntity<Void> releaseHold(@PathVariable String holdId) {
+        return productService.releaseHold(holdId)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
 }
\ No newline at end of file
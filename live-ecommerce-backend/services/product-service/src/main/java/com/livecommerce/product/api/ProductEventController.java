@@ -0,0 +1,44 @@
+package com.livecommerce.product.api;
+
+import com.livecommerce.product.dto.ProductChangeBatch;
+import com.livecommerce.product.events.ProductEventFeed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping("/api/products/events")
+@RequiredArgsConstructor
+public class ProductEventController {
+
+    private static final int MAX_WAIT_SECONDS = 25;
+
+    private final ProductEventFeed productEventFeed;
+
+    // 🔹 Change feed, long-poll: returns right away when there is something after ?after=, otherwise waits.
+    // reset=true means ?after= is older than the retained events; reload the products and continue from nextOffset
+    @GetMapping
+    public CompletableFuture<ProductChangeBatch> poll(
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "500") int limit,
+            @RequestParam(defaultValue = "20") int waitSeconds
+    ) {
+        Duration wait = Duration.ofSeconds(Math.max(0, Math.min(waitSeconds, MAX_WAIT_SECONDS)));
+        return productEventFeed.poll(after, limit, wait);
+    }
+
+    // 🔹 Change feed as server-sent events; reconnecting clients resume from Last-Event-ID
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(
+            @RequestParam(required = false) Long after,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+            @RequestParam(defaultValue = "500") int limit
+    ) {
+        long start = lastEventId != null ? lastEventId : after != null ? after : productEventFeed.lastOffset();
+        return productEventFeed.subscribe(start, limit, Duration.ofSeconds(MAX_WAIT_SECONDS));
+    }
+}
@@ -0,0 +1,32 @@
+package com.livecommerce.product.api;
+
+import com.livecommerce.product.live.StockTicker;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/products/stock")
+@RequiredArgsConstructor
+public class StockTickerController {
+
+    private static final int MAX_PRODUCTS = 200;
+
+    private final StockTicker stockTicker;
+
+    // 🔹 Live stock counts as server-sent "stock" events: ?ids=1,2,3 and/or ?live=true for the whole show
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(
+            @RequestParam(required = false) List<Long> ids,
+            @RequestParam(defaultValue = "false") boolean live
+    ) {
+        List<Long> productIds = ids != null ? ids : List.of();
+        if (productIds.size() > MAX_PRODUCTS) {
+            throw new RuntimeException("At most " + MAX_PRODUCTS + " products per stream");
+        }
+        return stockTicker.subscribe(productIds, live);
+    }
+}
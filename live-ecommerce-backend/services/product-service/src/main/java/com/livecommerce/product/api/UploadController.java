@@ -0,0 +1,23 @@
+package com.livecommerce.product.api;
+
+import com.livecommerce.product.storage.UploadFileServer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+
+import java.io.IOException;
+
+@Controller
+@RequiredArgsConstructor
+public class UploadController {
+
+    private final UploadFileServer uploadFileServer;
+
+    // 🔹 Product images and other uploaded files (GET and HEAD)
+    @GetMapping("/uploads/**")
+    public void serve(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        uploadFileServer.serve(request, response);
+    }
+}
@@ -0,0 +1,261 @@
+package com.livecommerce.product.bulk;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.livecommerce.product.domain.Product;
+import com.livecommerce.product.domain.ProductEventType;
+import com.livecommerce.product.dto.ProductImportError;
+import com.livecommerce.product.dto.ProductImportFormat;
+import com.livecommerce.product.dto.ProductImportResult;
+import com.livecommerce.product.events.ProductEventOutbox;
+import com.livecommerce.product.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Streams CSV or NDJSON product rows into the table in fixed-size batches.
+ * Rows are parsed as they arrive, so memory is bounded by one batch whatever the upload size.
+ * Each batch commits on its own with Hibernate JDBC batching (pooled ids, see Product);
+ * a batch that fails is replayed row by row so one bad row only costs itself.
+ * CSV needs a header row; columns are matched by name: name, description, price, category, stock, live.
+ */
+@Slf4j
+@Component
+public class ProductImporter {
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final ProductRepository productRepository;
+    private final ProductEventOutbox productEventOutbox;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectReader productReader;
+    private final int batchSize;
+
+    private record Row(long number, Product product) {
+    }
+
+    private interface RowSource {
+        // Next row, null at the end; a row that cannot be parsed is reported and skipped
+        Row next(Report report) throws IOException;
+    }
+
+    private static final class Report {
+        long rows;
+        long imported;
+        long failed;
+        final List<ProductImportError> errors = new ArrayList<>();
+
+        void fail(long row, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ProductImportError(row, message));
+            }
+        }
+    }
+
+    public ProductImporter(ProductRepository productRepository,
+                           ProductEventOutbox productEventOutbox,
+                           PlatformTransactionManager transactionManager,
+                           ObjectMapper objectMapper,
+                           @Value("${product.import.batch-size:1000}") int batchSize) {
+        this.productRepository = productRepository;
+        this.productEventOutbox = productEventOutbox;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.productReader = objectMapper.readerFor(Product.class);
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    // committed receives every batch right after it is in the database
+    public ProductImportResult importProducts(InputStream in, ProductImportFormat format,
+                                              Consumer<List<Product>> committed) throws IOException {
+        long start = System.nanoTime();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+        RowSource source = format == ProductImportFormat.CSV ? csv(reader) : ndjson(reader);
+        Report report = new Report();
+
+        List<Row> batch = new ArrayList<>(batchSize);
+        Row row;
+        while ((row = source.next(report)) != null) {
+            batch.add(row);
+            if (batch.size() == batchSize) {
+                save(batch, report, committed);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            save(batch, report, committed);
+        }
+
+        long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        log.info("Imported {} of {} product rows in {} ms ({} rows/s)",
+                report.imported, report.rows, millis, report.imported * 1000 / millis);
+        return new ProductImportResult(report.rows, report.imported, report.failed,
+                report.errors, report.failed > report.errors.size());
+    }
+
+    private void save(List<Row> batch, Report report, Consumer<List<Product>> committed) {
+        List<Product> products = batch.stream().map(Row::product).toList();
+        try {
+            List<Product> saved = transactionTemplate.execute(status -> {
+                List<Product> inserted = productRepository.saveAll(products);
+                productEventOutbox.recordAll(ProductEventType.CREATED, inserted);
+                return inserted;
+            });
+            report.imported += saved.size();
+            committed.accept(saved);
+            return;
+        } catch (RuntimeException e) {
+            log.debug("Import batch failed, retrying its {} rows one by one", batch.size(), e);
+        }
+        for (Row row : batch) {
+            // The failed batch may have handed out an id already
+            row.product().setId(null);
+            try {
+                Product saved = transactionTemplate.execute(status -> {
+                    Product inserted = productRepository.save(row.product());
+                    productEventOutbox.record(ProductEventType.CREATED, inserted.getId(), inserted.getStock());
+                    return inserted;
+                });
+                report.imported++;
+                committed.accept(List.of(saved));
+            } catch (RuntimeException e) {
+                report.fail(row.number(), rootMessage(e));
+            }
+        }
+    }
+
+    private RowSource ndjson(BufferedReader reader) {
+        long[] lineNumber = {0};
+        return report -> {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber[0]++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                report.rows++;
+                try {
+                    return new Row(lineNumber[0], prepare(productReader.readValue(line)));
+                } catch (JsonProcessingException e) {
+                    report.fail(lineNumber[0], "Invalid JSON: " + e.getOriginalMessage());
+                } catch (IllegalArgumentException e) {
+                    report.fail(lineNumber[0], e.getMessage());
+                }
+            }
+            return null;
+        };
+    }
+
+    private RowSource csv(BufferedReader reader) throws IOException {
+        CsvRowReader csv = new CsvRowReader(reader);
+        List<String> header = csv.next();
+        Map<String, Integer> columns = new HashMap<>();
+        if (header != null) {
+            for (int i = 0; i < header.size(); i++) {
+                columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+        }
+        return report -> {
+            while (true) {
+                long lineNumber = csv.line();
+                List<String> fields = csv.next();
+                if (fields == null) {
+                    return null;
+                }
+                if (fields.size() == 1 && fields.get(0).isBlank()) {
+                    continue;
+                }
+                report.rows++;
+                try {
+                    Product product = Product.builder()
+                            .name(column(fields, columns, "name"))
+                            .description(column(fields, columns, "description"))
+                            .price(decimal(column(fields, columns, "price")))
+                            .category(column(fields, columns, "category"))
+                            .stock(integer(column(fields, columns, "stock")))
+                            .live(bool(column(fields, columns, "live")))
+                            .build();
+                    return new Row(lineNumber, prepare(product));
+                } catch (IllegalArgumentException e) {
+                    report.fail(lineNumber, e.getMessage());
+                }
+            }
+        };
+    }
+
+    private static Product prepare(Product product) {
+        if (product.getName() == null || product.getName().isBlank()) {
+            throw new IllegalArgumentException("name is required");
+        }
+        if (product.getPrice() == null || product.getPrice().signum() < 0) {
+            throw new IllegalArgumentException("price is required and must not be negative");
+        }
+        if (product.getStock() == null) {
+            product.setStock(0);
+        } else if (product.getStock() < 0) {
+            throw new IllegalArgumentException("stock must not be negative");
+        }
+        // Images go through the regular upload endpoint
+        product.setId(null);
+        product.setImageUrl(null);
+        product.setImageVariants(null);
+        product.setCreatedAt(LocalDateTime.now());
+        product.setUpdatedAt(LocalDateTime.now());
+        return product;
+    }
+
+    private static String column(List<String> fields, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static BigDecimal decimal(String value) {
+        try {
+            return value == null ? null : new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("price is not a number: " + value);
+        }
+    }
+
+    private static Integer integer(String value) {
+        try {
+            return value == null ? null : Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("stock is not a whole number: " + value);
+        }
+    }
+
+    private static boolean bool(String value) {
+        return value != null && (value.equalsIgnoreCase("true") || value.equals("1") || value.equalsIgnoreCase("yes"));
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getMessage() != null ? root.getMessage() : root.getClass().getSimpleName();
+    }
+}
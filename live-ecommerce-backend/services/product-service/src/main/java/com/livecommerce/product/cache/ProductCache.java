@@ -0,0 +1,53 @@
+package com.livecommerce.product.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.livecommerce.product.domain.Product;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache for single products.
+ * Concurrent misses for the same id wait on one load instead of each hitting MySQL.
+ * Hit, miss and eviction counts are published as cache.* metrics with cache=products.
+ */
+@Component
+public class ProductCache {
+
+    private final Cache<Long, Product> cache;
+
+    public ProductCache(MeterRegistry meterRegistry,
+                        @Value("${product.cache.maximum-size:10000}") long maximumSize,
+                        @Value("${product.cache.ttl-seconds:300}") long ttlSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "products");
+    }
+
+    public Product get(Long id, Function<Long, Product> loader) {
+        return cache.get(id, loader);
+    }
+
+    public void invalidate(Long id) {
+        cache.invalidate(id);
+        // A reader may reload the old row before the writer commits, drop it again afterwards
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(id);
+                }
+            });
+        }
+    }
+}
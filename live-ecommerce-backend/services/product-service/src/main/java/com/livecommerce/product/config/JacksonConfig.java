@@ -0,0 +1,16 @@
+package com.livecommerce.product.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JacksonConfig {
+
+    // Generated accessors instead of reflection for every (de)serialized property; picked up by Boot's ObjectMapper
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
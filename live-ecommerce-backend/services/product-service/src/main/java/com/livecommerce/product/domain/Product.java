@@ -6,11 +6,15 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 @Entity
 @Table(name = "products")
-@Data @NoArgsConstructor @AllArgsConstructor @Builder
+@Data @NoArgsConstructor @AllArgsConstructor @Builder(toBuilder = true)
 public class Product {
 
+  public static final int ID_ALLOCATION_SIZE = 50;
+
+  // Pooled ids (a table on MySQL): Hibernate can batch inserts, which IDENTITY rules out
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+  @SequenceGenerator(name = "product_seq", sequenceName = "product_seq", allocationSize = Product.ID_ALLOCATION_SIZE)
   private Long id;
 
   private String name;
@@ -20,6 +24,9 @@ public class Product {
   private boolean live;
   private Integer stock;
   private String imageUrl;
+  // Derived images next to imageUrl, e.g. "thumb.jpg,w320.jpg,w640.jpg"; "" when none could be made
+  @Column(length = 512)
+  private String imageVariants;
   private LocalDateTime createdAt;
   private LocalDateTime updatedAt;
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.livecommerce.product.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+// Outbox row, written in the same transaction as the product change it describes
+@Entity
+@Table(name = "product_events",
+        indexes = @Index(name = "ux_product_events_offset", columnList = "event_offset", unique = true))
+@Data @NoArgsConstructor @AllArgsConstructor @Builder
+public class ProductEvent {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_event_seq")
+  @SequenceGenerator(name = "product_event_seq", sequenceName = "product_event_seq", allocationSize = 100)
+  private Long id;
+
+  // Feed position, handed out by the relay in publish order; null until published
+  @Column(name = "event_offset")
+  private Long eventOffset;
+
+  @Enumerated(EnumType.STRING)
+  @Column(length = 16, nullable = false)
+  private ProductEventType type;
+
+  @Column(nullable = false)
+  private Long productId;
+
+  // Stock after the change, when it is known
+  private Integer stock;
+
+  private LocalDateTime createdAt;
+}
@@ -0,0 +1,8 @@
+package com.livecommerce.product.domain;
+
+public enum ProductEventType {
+    CREATED,
+    UPDATED,
+    DELETED,
+    STOCK_CHANGED
+}
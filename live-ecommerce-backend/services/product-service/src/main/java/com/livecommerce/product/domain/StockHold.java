@@ -0,0 +1,31 @@
+package com.livecommerce.product.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Stock taken for a checkout that has not been paid yet; given back unless confirmed before expiresAt
+@Entity
+@Table(name = "stock_holds",
+        indexes = @Index(name = "ix_stock_holds_status_expires", columnList = "status, expires_at"))
+@Data @NoArgsConstructor @AllArgsConstructor @Builder
+public class StockHold {
+
+  @Id
+  @Column(length = 36)
+  private String id;
+
+  @Enumerated(EnumType.STRING)
+  @Column(length = 16, nullable = false)
+  private StockHoldStatus status;
+
+  @Column(name = "expires_at", nullable = false)
+  private LocalDateTime expiresAt;
+
+  private LocalDateTime createdAt;
+
+  @ElementCollection(fetch = FetchType.EAGER)
+  @CollectionTable(name = "stock_hold_lines", joinColumns = @JoinColumn(name = "hold_id"))
+  private List<StockHoldLine> lines;
+}
@@ -0,0 +1,13 @@
+package com.livecommerce.product.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Embeddable
+@Data @NoArgsConstructor @AllArgsConstructor
+public class StockHoldLine {
+
+  private Long productId;
+
+  private Integer quantity;
+}
@@ -0,0 +1,8 @@
+package com.livecommerce.product.domain;
+
+public enum StockHoldStatus {
+    ACTIVE,
+    CONFIRMED,
+    RELEASED,
+    EXPIRED
+}
@@ -0,0 +1,18 @@
+package com.livecommerce.product.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// Last journal segment whose decrements are already applied to the products table
+@Entity
+@Table(name = "stock_ledger_checkpoint")
+@Data @NoArgsConstructor @AllArgsConstructor
+public class StockLedgerCheckpoint {
+
+  public static final String LEDGER = "stock-ledger";
+
+  @Id
+  private String name;
+
+  private Long lastSegment;
+}
@@ -0,0 +1,14 @@
+package com.livecommerce.product.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CategoryFacet {
+    private String category;
+    private long total;
+    private long live;
+    private long inStock;
+}
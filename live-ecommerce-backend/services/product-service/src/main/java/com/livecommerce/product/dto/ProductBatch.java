@@ -0,0 +1,16 @@
+package com.livecommerce.product.dto;
+
+import com.livecommerce.product.domain.Product;
+import lombok.*;
+
+import java.util.List;
+
+// Products in the order their ids were requested; ids with no product are listed in missingIds
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductBatch {
+    private List<Product> products;
+    private List<Long> missingIds;
+}
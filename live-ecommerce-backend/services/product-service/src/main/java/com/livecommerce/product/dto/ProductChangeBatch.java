@@ -0,0 +1,17 @@
+package com.livecommerce.product.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+// One feed read; pass nextOffset as ?after= to continue where this batch ended
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductChangeBatch {
+    private List<ProductChangeEvent> events;
+    private long nextOffset;
+    // The events after the requested offset were purged: reload the products, then continue from nextOffset
+    private boolean reset;
+}
@@ -0,0 +1,26 @@
+package com.livecommerce.product.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.livecommerce.product.domain.ProductEvent;
+import com.livecommerce.product.domain.ProductEventType;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductChangeEvent {
+    private long offset;
+    private ProductEventType type;
+    private Long productId;
+    private Integer stock;
+    private LocalDateTime occurredAt;
+
+    public static ProductChangeEvent from(ProductEvent event) {
+        return new ProductChangeEvent(event.getEventOffset(), event.getType(), event.getProductId(),
+                event.getStock(), event.getCreatedAt());
+    }
+}
@@ -0,0 +1,12 @@
+package com.livecommerce.product.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductImportError {
+    private long row;
+    private String message;
+}
@@ -0,0 +1,6 @@
+package com.livecommerce.product.dto;
+
+public enum ProductImportFormat {
+    CSV,
+    NDJSON
+}
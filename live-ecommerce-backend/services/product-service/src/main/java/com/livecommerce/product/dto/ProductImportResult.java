@@ -0,0 +1,18 @@
+package com.livecommerce.product.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductImportResult {
+    private long rows;
+    private long imported;
+    private long failed;
+    // Capped; errorsTruncated tells the caller there were more
+    private List<ProductImportError> errors;
+    private boolean errorsTruncated;
+}
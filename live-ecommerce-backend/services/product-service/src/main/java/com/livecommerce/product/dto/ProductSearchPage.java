@@ -0,0 +1,15 @@
+package com.livecommerce.product.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+// One page of ranked search hits; nextCursor is null on the last page
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductSearchPage {
+    private List<ProductSummary> products;
+    private String nextCursor;
+}
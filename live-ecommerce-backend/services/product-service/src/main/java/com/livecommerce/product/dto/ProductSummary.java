@@ -0,0 +1,30 @@
+package com.livecommerce.product.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.livecommerce.product.domain.Product;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+// Grid/list row: no description, variants or timestamps; GET /{id} returns the full Product
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({"id", "name", "price", "category", "stock", "live", "imageUrl"})
+public class ProductSummary {
+    private Long id;
+    private String name;
+    private BigDecimal price;
+    private String category;
+    private Integer stock;
+    private boolean live;
+    private String imageUrl;
+
+    public static ProductSummary from(Product product) {
+        return new ProductSummary(product.getId(), product.getName(), product.getPrice(), product.getCategory(),
+                product.getStock(), product.isLive(), product.getImageUrl());
+    }
+}
@@ -0,0 +1,7 @@
+package com.livecommerce.product.dto;
+
+import java.time.LocalDateTime;
+
+// Id and expiry of an active hold, all the timing wheel needs at startup
+public record StockHoldDeadline(String id, LocalDateTime expiresAt) {
+}
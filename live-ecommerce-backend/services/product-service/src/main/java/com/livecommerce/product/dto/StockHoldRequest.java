@@ -0,0 +1,15 @@
+package com.livecommerce.product.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockHoldRequest {
+    private List<StockReservationLine> lines;
+    // Optional, falls back to product.stock-holds.default-ttl-seconds
+    private Integer ttlSeconds;
+}
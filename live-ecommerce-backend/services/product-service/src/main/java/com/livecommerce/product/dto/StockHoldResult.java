@@ -0,0 +1,17 @@
+package com.livecommerce.product.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockHoldResult {
+    private String holdId;
+    private LocalDateTime expiresAt;
+    private boolean reserved;
+    private List<StockReservationLineResult> lines;
+}
@@ -0,0 +1,12 @@
+package com.livecommerce.product.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockReservationLine {
+    private Long productId;
+    private Integer quantity;
+}
@@ -0,0 +1,13 @@
+package com.livecommerce.product.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockReservationLineResult {
+    private Long productId;
+    private Integer quantity;
+    private StockReservationStatus status;
+}
@@ -0,0 +1,14 @@
+package com.livecommerce.product.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockReservationResult {
+    private boolean reserved;
+    private List<StockReservationLineResult> lines;
+}
@@ -0,0 +1,9 @@
+package com.livecommerce.product.dto;
+
+public enum StockReservationStatus {
+    RESERVED,
+    INSUFFICIENT_STOCK,
+    NOT_FOUND,
+    INVALID_QUANTITY,
+    ROLLED_BACK   // line itself was fine but another line failed
+}
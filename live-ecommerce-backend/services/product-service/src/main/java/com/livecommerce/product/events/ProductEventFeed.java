@@ -0,0 +1,265 @@
+package com.livecommerce.product.events;
+
+import com.livecommerce.product.domain.ProductEvent;
+import com.livecommerce.product.dto.ProductChangeBatch;
+import com.livecommerce.product.dto.ProductChangeEvent;
+import com.livecommerce.product.repository.ProductEventRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Relay and read side of the product change feed.
+ * The relay numbers outbox rows in commit-visible order, so offsets have no gaps and a consumer
+ * that remembers the last offset it processed can always resume after it.
+ * Recent events are kept in memory; consumers further behind catch up from the table.
+ * The in-memory tail is filled from the table by offset range, not from what a relay run just
+ * numbered, so it stays contiguous across failed runs, restarts and purges.
+ * Events are kept for retention-hours. A consumer whose offset has been purged gets a reset
+ * instead of a batch with a hole in it: it has to reload its copy of the products, then go on
+ * from the batch's nextOffset.
+ * Long-poll and SSE readers wait on virtual threads, not on servlet threads.
+ */
+@Slf4j
+@Component
+public class ProductEventFeed {
+
+    public static final int MAX_BATCH = 1000;
+
+    private final ProductEventRepository productEventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int relayBatchSize;
+    private final int tailCapacity;
+    private final Duration retention;
+
+    private final ConcurrentSkipListMap<Long, ProductChangeEvent> tail = new ConcurrentSkipListMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition published = lock.newCondition();
+    private final ExecutorService readers = Executors.newVirtualThreadPerTaskExecutor();
+    private volatile long lastOffset;
+    private volatile boolean started;
+
+    public ProductEventFeed(ProductEventRepository productEventRepository,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${product.events.relay-batch-size:500}") int relayBatchSize,
+                            @Value("${product.events.tail-capacity:10000}") int tailCapacity,
+                            @Value("${product.events.retention-hours:72}") long retentionHours) {
+        this.productEventRepository = productEventRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.relayBatchSize = relayBatchSize;
+        this.tailCapacity = tailCapacity;
+        this.retention = Duration.ofHours(retentionHours);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        lastOffset = productEventRepository.findMaxOffset();
+        started = true;
+        relay();
+    }
+
+    public long lastOffset() {
+        return lastOffset;
+    }
+
+    @Scheduled(fixedDelayString = "${product.events.relay-interval-ms:100}")
+    public synchronized void relay() {
+        if (!started) {
+            return;
+        }
+        try {
+            Integer numbered;
+            do {
+                numbered = transactionTemplate.execute(status -> {
+                    List<ProductEvent> pending = productEventRepository.findByEventOffsetIsNullOrderByIdAsc(Limit.of(relayBatchSize));
+                    long offset = productEventRepository.findMaxOffset();
+                    for (ProductEvent event : pending) {
+                        event.setEventOffset(++offset);
+                    }
+                    return pending.size();
+                });
+            } while (numbered != null && numbered == relayBatchSize);
+        } catch (RuntimeException e) {
+            // Rows stay unnumbered and go out with the next run
+            log.error("Product event relay failed", e);
+        }
+        try {
+            catchUp();
+        } catch (RuntimeException e) {
+            log.error("Product event tail catch-up failed", e);
+        }
+    }
+
+    // Moves the tail up to what the table holds
+    private void catchUp() {
+        List<ProductChangeEvent> batch;
+        do {
+            batch = productEventRepository.findByEventOffsetGreaterThanOrderByEventOffsetAsc(lastOffset, Limit.of(relayBatchSize))
+                    .stream()
+                    .map(ProductChangeEvent::from)
+                    .toList();
+            publish(batch);
+        } while (batch.size() == relayBatchSize);
+    }
+
+    @Scheduled(fixedDelayString = "PT1H", initialDelayString = "PT5M")
+    public void purge() {
+        int deleted = productEventRepository.deletePublishedBefore(LocalDateTime.now().minus(retention));
+        if (deleted > 0) {
+            log.info("Purged {} product events older than {}", deleted, retention);
+        }
+    }
+
+    // Events after the given offset, oldest first; empty when the consumer is up to date
+    public ProductChangeBatch read(long afterOffset, int limit) {
+        int max = Math.max(1, Math.min(limit, MAX_BATCH));
+        List<ProductChangeEvent> events;
+        Map.Entry<Long, ProductChangeEvent> oldest = tail.firstEntry();
+        if (oldest != null && afterOffset >= oldest.getKey() - 1) {
+            events = new ArrayList<>(Math.min(max, 64));
+            for (ProductChangeEvent event : tail.tailMap(afterOffset, false).values()) {
+                if (events.size() == max) {
+                    break;
+                }
+                events.add(event);
+            }
+        } else {
+            // Everything up to head is numbered and committed, so a missing offset below it was purged
+            long head = lastOffset;
+            events = productEventRepository.findByEventOffsetGreaterThanOrderByEventOffsetAsc(afterOffset, Limit.of(max))
+                    .stream()
+                    .map(ProductChangeEvent::from)
+                    .toList();
+            long first = events.isEmpty() ? head + 1 : events.get(0).getOffset();
+            if (first > afterOffset + 1) {
+                return new ProductChangeBatch(List.of(), head, true);
+            }
+        }
+        long next = events.isEmpty() ? Math.max(afterOffset, 0) : events.get(events.size() - 1).getOffset();
+        return new ProductChangeBatch(events, next, false);
+    }
+
+    // Long-poll: completes as soon as anything after the offset is published, or empty after the wait
+    public CompletableFuture<ProductChangeBatch> poll(long afterOffset, int limit, Duration wait) {
+        return CompletableFuture.supplyAsync(() -> {
+            awaitAfter(afterOffset, wait);
+            return read(afterOffset, limit);
+        }, readers);
+    }
+
+    // SSE: one "products" event per batch with the batch's last offset as id, so Last-Event-ID resumes it;
+    // a "reset" event when the client's offset has been purged
+    public SseEmitter subscribe(long afterOffset, int limit, Duration heartbeat) {
+        SseEmitter emitter = new SseEmitter(0L);
+        readers.execute(() -> {
+            long position = afterOffset;
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    ProductChangeBatch batch = read(position, limit);
+                    if (batch.isReset()) {
+                        emitter.send(SseEmitter.event()
+                                .id(Long.toString(batch.getNextOffset()))
+                                .name("reset")
+                                .data(batch, MediaType.APPLICATION_JSON));
+                        position = batch.getNextOffset();
+                        continue;
+                    }
+                    if (batch.getEvents().isEmpty()) {
+                        if (!awaitAfter(position, heartbeat)) {
+                            emitter.send(SseEmitter.event().comment("keep-alive"));
+                        }
+                        continue;
+                    }
+                    emitter.send(SseEmitter.event()
+                            .id(Long.toString(batch.getNextOffset()))
+                            .name("products")
+                            .data(batch.getEvents(), MediaType.APPLICATION_JSON));
+                    position = batch.getNextOffset();
+                }
+                emitter.complete();
+            } catch (IOException | IllegalStateException e) {
+                // Client went away
+                emitter.completeWithError(e);
+            }
+        });
+        return emitter;
+    }
+
+    @PreDestroy
+    public void stop() {
+        readers.shutdownNow();
+    }
+
+    // Keeps the tail contiguous: read() serves any offset from the oldest one on without a table lookup
+    private void publish(List<ProductChangeEvent> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        long expected = lastOffset + 1;
+        if (batch.get(0).getOffset() != expected) {
+            // Offsets the table no longer has (purged, or the tail fell far behind): start a new run
+            tail.clear();
+            expected = batch.get(0).getOffset();
+        }
+        for (ProductChangeEvent event : batch) {
+            if (event.getOffset() != expected) {
+                break;
+            }
+            tail.put(event.getOffset(), event);
+            expected++;
+        }
+        long newest = expected - 1;
+        while (!tail.isEmpty() && tail.firstKey() <= newest - tailCapacity) {
+            tail.pollFirstEntry();
+        }
+        lock.lock();
+        try {
+            lastOffset = newest;
+            published.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // True when something after the offset is available, false when the wait ran out
+    private boolean awaitAfter(long afterOffset, Duration wait) {
+        long remaining = wait.toNanos();
+        lock.lock();
+        try {
+            while (lastOffset <= afterOffset) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = published.awaitNanos(remaining);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.livecommerce.product.events;
+
+import com.livecommerce.product.domain.Product;
+import com.livecommerce.product.domain.ProductEvent;
+import com.livecommerce.product.domain.ProductEventType;
+import com.livecommerce.product.repository.ProductEventRepository;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Write side of the product change feed.
+ * Events join the caller's transaction (there has to be one), so an event exists exactly
+ * when its change committed. ProductEventFeed numbers and publishes them afterwards.
+ */
+@Component
+@RequiredArgsConstructor
+@Transactional(Transactional.TxType.MANDATORY)
+public class ProductEventOutbox {
+
+    private final ProductEventRepository productEventRepository;
+
+    public void record(ProductEventType type, Long productId, Integer stock) {
+        productEventRepository.save(event(type, productId, stock));
+    }
+
+    public void recordAll(ProductEventType type, Collection<Product> products) {
+        productEventRepository.saveAll(products.stream()
+                .map(product -> event(type, product.getId(), product.getStock()))
+                .toList());
+    }
+
+    // productId -> stock after the change, null values when it is not known
+    public void recordStockChanges(Map<Long, Integer> stock) {
+        productEventRepository.saveAll(stock.entrySet().stream()
+                .map(entry -> event(ProductEventType.STOCK_CHANGED, entry.getKey(), entry.getValue()))
+                .toList());
+    }
+
+    private static ProductEvent event(ProductEventType type, Long productId, Integer stock) {
+        return ProductEvent.builder()
+                .type(type)
+                .productId(productId)
+                .stock(stock)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
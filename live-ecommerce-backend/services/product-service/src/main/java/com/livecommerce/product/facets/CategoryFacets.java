@@ -0,0 +1,164 @@
+package com.livecommerce.product.facets;
+
+import com.livecommerce.product.domain.Product;
+import com.livecommerce.product.dto.CategoryFacet;
+import com.livecommerce.product.repository.ProductStreamRepository;
+import com.livecommerce.product.stock.StockLedger;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-category product, live and in-stock counts kept up to date by the write paths.
+ * Each product's last known state is remembered, so an update moves exactly one unit
+ * between counters instead of rescanning anything. A periodic pass over the table
+ * corrects drift for products that were not touched while it ran.
+ * Products without a category are not counted.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CategoryFacets {
+
+    private final ProductStreamRepository productStreamRepository;
+    private final StockLedger stockLedger;
+
+    private final Map<Long, Entry> products = new ConcurrentHashMap<>();
+    private final Map<String, Counts> categories = new ConcurrentHashMap<>();
+    // Ids changed by the write paths since the current reconciliation started
+    private final Set<Long> touched = ConcurrentHashMap.newKeySet();
+    private volatile boolean ready;
+
+    private record Entry(String category, boolean live, long stock) {
+    }
+
+    private static final class Counts {
+        final AtomicLong total = new AtomicLong();
+        final AtomicLong live = new AtomicLong();
+        final AtomicLong inStock = new AtomicLong();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void put(Product product) {
+        Entry entry = entry(product);
+        products.compute(product.getId(), (id, old) -> {
+            touched.add(id);
+            move(old, entry);
+            return entry;
+        });
+    }
+
+    public void remove(Long productId) {
+        products.computeIfPresent(productId, (id, old) -> {
+            touched.add(id);
+            move(old, null);
+            return null;
+        });
+    }
+
+    public void adjustStock(Long productId, long delta) {
+        products.computeIfPresent(productId, (id, old) -> {
+            touched.add(id);
+            Entry entry = new Entry(old.category(), old.live(), Math.max(0, old.stock() + delta));
+            move(old, entry);
+            return entry;
+        });
+    }
+
+    public List<CategoryFacet> facets() {
+        return categories.entrySet().stream()
+                .map(e -> new CategoryFacet(e.getKey(), e.getValue().total.get(),
+                        e.getValue().live.get(), e.getValue().inStock.get()))
+                .filter(facet -> facet.getTotal() > 0)
+                .sorted(Comparator.comparing(CategoryFacet::getCategory))
+                .toList();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        reconcile();
+        ready = true;
+    }
+
+    // Streams the table and fixes any product whose counted state differs from the database
+    @Scheduled(fixedDelayString = "${product.facets.reconcile-interval-ms:300000}",
+            initialDelayString = "${product.facets.reconcile-interval-ms:300000}")
+    public synchronized void reconcile() {
+        long start = System.nanoTime();
+        touched.clear();
+        Map<Long, Entry> scanned = new HashMap<>();
+        productStreamRepository.forEach(null, product -> scanned.put(product.getId(), entry(product)));
+
+        AtomicInteger corrected = new AtomicInteger();
+        scanned.forEach((productId, entry) -> products.compute(productId, (id, old) -> {
+            // Changed during the scan: the write path already holds a newer state than the row we read
+            if (touched.contains(id) || entry.equals(old)) {
+                return old;
+            }
+            corrected.incrementAndGet();
+            move(old, entry);
+            return entry;
+        }));
+        for (Long productId : products.keySet()) {
+            if (!scanned.containsKey(productId)) {
+                products.computeIfPresent(productId, (id, old) -> {
+                    if (touched.contains(id)) {
+                        return old;
+                    }
+                    corrected.incrementAndGet();
+                    move(old, null);
+                    return null;
+                });
+            }
+        }
+
+        if (ready && corrected.get() > 0) {
+            log.warn("Category facets corrected {} products during reconciliation", corrected.get());
+        }
+        log.debug("Reconciled category facets for {} products in {} ms",
+                scanned.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Live products keep their current stock in the ledger rather than in the row
+    private Entry entry(Product product) {
+        Long available = stockLedger.available(product.getId());
+        long stock = available != null ? available : product.getStock() != null ? product.getStock() : 0;
+        return new Entry(product.getCategory(), product.isLive(), stock);
+    }
+
+    // Called inside compute() for the product, so its counters move together with its entry
+    private void move(Entry from, Entry to) {
+        if (from != null && from.category() != null) {
+            add(from, -1);
+        }
+        if (to != null && to.category() != null) {
+            add(to, 1);
+        }
+    }
+
+    private void add(Entry entry, int delta) {
+        Counts counts = categories.computeIfAbsent(entry.category(), c -> new Counts());
+        counts.total.addAndGet(delta);
+        if (entry.live()) {
+            counts.live.addAndGet(delta);
+        }
+        if (entry.stock() > 0) {
+            counts.inStock.addAndGet(delta);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.livecommerce.product.live;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.livecommerce.product.dto.ProductSummary;
+import com.livecommerce.product.repository.ProductRepository;
+import com.livecommerce.product.stock.StockLedger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Pre-serialized, versioned copy of the live product list.
+ * Viewers polling /live get the same byte[] until something they can see changes.
+ * Live flag or price changes rebuild it from MySQL. Stock changes only re-apply the ledger counts
+ * to the products already in it, and at most once per rebuild interval.
+ */
+@Component
+public class LiveProductsSnapshot {
+
+    public record Snapshot(long version, String etag, byte[] body, List<ProductSummary> products, Set<Long> ids) {
+    }
+
+    private final ProductRepository productRepository;
+    private final StockLedger stockLedger;
+    private final ObjectWriter writer;
+    private final long minStockRebuildNanos;
+
+    // Versions restart with the process, the epoch keeps ETags from an older run from matching
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private volatile Snapshot current;
+    private volatile boolean membershipStale = true;
+    private volatile boolean stockStale;
+    private volatile long builtAt;
+
+    public LiveProductsSnapshot(ProductRepository productRepository,
+                                StockLedger stockLedger,
+                                ObjectMapper objectMapper,
+                                @Value("${product.live-snapshot.stock-refresh-ms:250}") long stockRefreshMs) {
+        this.productRepository = productRepository;
+        this.stockLedger = stockLedger;
+        // Resolved once instead of per rebuild
+        this.writer = objectMapper.writerFor(new TypeReference<List<ProductSummary>>() { });
+        this.minStockRebuildNanos = TimeUnit.MILLISECONDS.toNanos(stockRefreshMs);
+    }
+
+    public Snapshot current() {
+        Snapshot snapshot = current;
+        boolean stockDue = stockStale && System.nanoTime() - builtAt >= minStockRebuildNanos;
+        if (snapshot != null && !membershipStale && !stockDue) {
+            return snapshot;
+        }
+        // Only one request rebuilds, everyone else keeps getting the previous version meanwhile
+        if (snapshot != null && !rebuildLock.tryLock()) {
+            return snapshot;
+        }
+        if (snapshot == null) {
+            rebuildLock.lock();
+        }
+        try {
+            return rebuild();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    // A product became live, stopped being live or changed while live
+    public void invalidate() {
+        membershipStale = true;
+    }
+
+    public void productDeleted(Long productId) {
+        Snapshot snapshot = current;
+        if (snapshot == null || snapshot.ids().contains(productId)) {
+            membershipStale = true;
+        }
+    }
+
+    public void stockChanged(Long productId) {
+        Snapshot snapshot = current;
+        if (snapshot != null && snapshot.ids().contains(productId)) {
+            stockStale = true;
+        }
+    }
+
+    private Snapshot rebuild() {
+        Snapshot previous = current;
+        boolean reload = membershipStale || previous == null;
+        if (!reload && !stockStale) {
+            return previous;
+        }
+        // Cleared up front so changes that land while we rebuild mark it stale again
+        membershipStale = false;
+        stockStale = false;
+
+        List<ProductSummary> products;
+        byte[] body;
+        try {
+            List<ProductSummary> base = reload ? productRepository.findLiveSummaries() : previous.products();
+            products = base.stream()
+                    .map(product -> {
+                        Long available = stockLedger.available(product.getId());
+                        return available == null ? product : product.toBuilder().stock(available.intValue()).build();
+                    })
+                    .toList();
+            body = writer.writeValueAsBytes(products);
+        } catch (JsonProcessingException | RuntimeException e) {
+            membershipStale |= reload;
+            stockStale = true;
+            throw new RuntimeException("Could not build live products snapshot", e);
+        }
+        builtAt = System.nanoTime();
+
+        // Same bytes, same version: pollers keep getting 304
+        if (previous != null && Arrays.equals(previous.body(), body)) {
+            return previous;
+        }
+        long version = previous != null ? previous.version() + 1 : 1;
+        Set<Long> ids = products.stream().map(ProductSummary::getId).collect(Collectors.toUnmodifiableSet());
+        Snapshot snapshot = new Snapshot(version, "\"" + epoch + "-" + version + "\"", body, products, ids);
+        current = snapshot;
+        return snapshot;
+    }
+}
@@ -0,0 +1,253 @@
+package com.livecommerce.product.live;
+
+import com.livecommerce.product.cache.ProductCache;
+import com.livecommerce.product.domain.Product;
+import com.livecommerce.product.dto.ProductSummary;
+import com.livecommerce.product.repository.ProductRepository;
+import com.livecommerce.product.stock.StockLedger;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes stock counts to viewers over SSE, per product or for everything live.
+ * Changes are only marked when they happen; once per interval each changed product is
+ * read and serialized once, then handed to every interested viewer.
+ * A viewer holds at most one pending value per product: if its connection is still busy
+ * with the previous frame, the newer value replaces the waiting one instead of queueing
+ * behind it. Viewers stuck on a single write for too long are disconnected; the tick only marks
+ * them closed, since completing an emitter waits for the write that is stuck.
+ */
+@Slf4j
+@Component
+public class StockTicker {
+
+    private static final String EVENT = "stock";
+
+    private final StockLedger stockLedger;
+    private final ProductCache productCache;
+    private final ProductRepository productRepository;
+    private final LiveProductsSnapshot liveProductsSnapshot;
+    private final int maxViewers;
+    private final long stallNanos;
+    private final long heartbeatNanos;
+    private final Counter replaced;
+
+    private final Set<Long> changed = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Set<Viewer>> byProduct = new ConcurrentHashMap<>();
+    private final Set<Viewer> liveViewers = ConcurrentHashMap.newKeySet();
+    private final Set<Viewer> viewers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService writers = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final class Viewer {
+        final SseEmitter emitter = new SseEmitter(0L);
+        final Set<Long> productIds;
+        final boolean live;
+        // productId -> serialized frame waiting to be written; never more than one per product
+        final Map<Long, String> pending = new ConcurrentHashMap<>();
+        final AtomicBoolean writing = new AtomicBoolean();
+        volatile long writeStarted;
+        volatile long lastWrite = System.nanoTime();
+        volatile boolean closed;
+
+        Viewer(Set<Long> productIds, boolean live) {
+            this.productIds = productIds;
+            this.live = live;
+        }
+
+        void offer(Long productId, String frame) {
+            if (pending.put(productId, frame) != null) {
+                replaced.increment();
+            }
+            schedule();
+        }
+
+        void schedule() {
+            if (!closed && writing.compareAndSet(false, true)) {
+                writers.execute(this::drain);
+            }
+        }
+
+        void drain() {
+            try {
+                do {
+                    writeStarted = System.nanoTime();
+                    Iterator<Map.Entry<Long, String>> frames = pending.entrySet().iterator();
+                    while (frames.hasNext() && !closed) {
+                        Map.Entry<Long, String> frame = frames.next();
+                        frames.remove();
+                        emitter.send(SseEmitter.event().name(EVENT).data(frame.getValue(), MediaType.APPLICATION_JSON));
+                    }
+                    if (!closed && System.nanoTime() - lastWrite > heartbeatNanos) {
+                        emitter.send(SseEmitter.event().comment("keep-alive"));
+                    }
+                    lastWrite = System.nanoTime();
+                    writing.set(false);
+                    // A frame may have arrived after the loop finished
+                } while (!pending.isEmpty() && !closed && writing.compareAndSet(false, true));
+            } catch (IOException | IllegalStateException e) {
+                writing.set(false);
+                close();
+            }
+        }
+
+        void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            unregister(this);
+            // complete() waits for a send in progress, which for a client that stopped reading ends only
+            // when the container's write times out; the scheduler thread must never wait for that
+            try {
+                writers.execute(emitter::complete);
+            } catch (RejectedExecutionException e) {
+                emitter.complete();
+            }
+        }
+    }
+
+    public StockTicker(StockLedger stockLedger,
+                       ProductCache productCache,
+                       ProductRepository productRepository,
+                       LiveProductsSnapshot liveProductsSnapshot,
+                       MeterRegistry meterRegistry,
+                       @Value("${product.stock-ticker.max-viewers:20000}") int maxViewers,
+                       @Value("${product.stock-ticker.stall-timeout-ms:5000}") long stallTimeoutMs,
+                       @Value("${product.stock-ticker.heartbeat-seconds:20}") long heartbeatSeconds) {
+        this.stockLedger = stockLedger;
+        this.productCache = productCache;
+        this.productRepository = productRepository;
+        this.liveProductsSnapshot = liveProductsSnapshot;
+        this.maxViewers = maxViewers;
+        this.stallNanos = TimeUnit.MILLISECONDS.toNanos(stallTimeoutMs);
+        this.heartbeatNanos = TimeUnit.SECONDS.toNanos(heartbeatSeconds);
+        this.replaced = Counter.builder("product.stock.ticker.replaced")
+                .description("Stock frames superseded before a slow viewer received them")
+                .register(meterRegistry);
+        meterRegistry.gauge("product.stock.ticker.viewers", viewers, Set::size);
+    }
+
+    /**
+     * Opens a stream for the given products, or for every live product when live is true.
+     * Current counts are sent right away, later ones only when they change.
+     */
+    public SseEmitter subscribe(Collection<Long> productIds, boolean live) {
+        if (viewers.size() >= maxViewers) {
+            throw new RuntimeException("Too many stock ticker viewers");
+        }
+        Viewer viewer = new Viewer(Set.copyOf(productIds), live);
+        viewer.emitter.onCompletion(() -> unregister(viewer));
+        viewer.emitter.onTimeout(viewer::close);
+        viewer.emitter.onError(e -> viewer.close());
+        viewers.add(viewer);
+        if (live) {
+            liveViewers.add(viewer);
+            for (ProductSummary product : liveProductsSnapshot.current().products()) {
+                viewer.pending.put(product.getId(), frame(product.getId(), product.getStock()));
+            }
+        }
+        for (Long productId : viewer.productIds) {
+            byProduct.computeIfAbsent(productId, id -> ConcurrentHashMap.newKeySet()).add(viewer);
+            Integer stock = stock(productId);
+            if (stock != null) {
+                viewer.pending.put(productId, frame(productId, stock));
+            }
+        }
+        viewer.schedule();
+        return viewer.emitter;
+    }
+
+    // Cheap, called on every stock change; the actual push happens on the next tick
+    public void stockChanged(Long productId) {
+        changed.add(productId);
+    }
+
+    @Scheduled(fixedDelayString = "${product.stock-ticker.interval-ms:250}")
+    public void tick() {
+        long now = System.nanoTime();
+        for (Viewer viewer : viewers) {
+            if (viewer.writing.get() && now - viewer.writeStarted > stallNanos) {
+                // Stuck on a single write: the client is not reading
+                viewer.close();
+            } else if (now - viewer.lastWrite > heartbeatNanos) {
+                viewer.schedule();
+            }
+        }
+
+        if (changed.isEmpty()) {
+            return;
+        }
+        Set<Viewer> live = liveViewers;
+        Iterator<Long> ids = changed.iterator();
+        while (ids.hasNext()) {
+            Long productId = ids.next();
+            ids.remove();
+            Set<Viewer> watching = byProduct.get(productId);
+            boolean liveProduct = !live.isEmpty() && stockLedger.isTracked(productId);
+            if ((watching == null || watching.isEmpty()) && !liveProduct) {
+                continue;
+            }
+            Integer stock = stock(productId);
+            if (stock == null) {
+                continue;
+            }
+            String frame = frame(productId, stock);
+            if (watching != null) {
+                watching.forEach(viewer -> viewer.offer(productId, frame));
+            }
+            if (liveProduct) {
+                live.forEach(viewer -> viewer.offer(productId, frame));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        viewers.forEach(Viewer::close);
+        writers.shutdownNow();
+    }
+
+    private void unregister(Viewer viewer) {
+        viewers.remove(viewer);
+        liveViewers.remove(viewer);
+        for (Long productId : viewer.productIds) {
+            byProduct.computeIfPresent(productId, (id, set) -> {
+                set.remove(viewer);
+                return set.isEmpty() ? null : set;
+            });
+        }
+    }
+
+    // Live products from the ledger, anything else through the product cache
+    private Integer stock(Long productId) {
+        Long available = stockLedger.available(productId);
+        if (available != null) {
+            return available.intValue();
+        }
+        Product product = productCache.get(productId, id -> productRepository.findById(id).orElse(null));
+        return product != null ? product.getStock() : null;
+    }
+
+    private static String frame(Long productId, Integer stock) {
+        return "{\"productId\":" + productId + ",\"stock\":" + stock + "}";
+    }
+}
@@ -0,0 +1,34 @@
+package com.livecommerce.product.repository;
+
+import com.livecommerce.product.domain.ProductEvent;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ProductEventRepository extends JpaRepository<ProductEvent, Long> {
+
+    // Unpublished rows in write order, locked so a second relay cannot number them too
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<ProductEvent> findByEventOffsetIsNullOrderByIdAsc(Limit limit);
+
+    List<ProductEvent> findByEventOffsetGreaterThanOrderByEventOffsetAsc(Long afterOffset, Limit limit);
+
+    @Query("SELECT COALESCE(MAX(e.eventOffset), 0) FROM ProductEvent e")
+    long findMaxOffset();
+
+    // Published rows only, unpublished ones stay until the relay has numbered them
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ProductEvent e WHERE e.eventOffset IS NOT NULL AND e.createdAt < :before")
+    int deletePublishedBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,39 @@
+package com.livecommerce.product.repository;
+
+import com.livecommerce.product.domain.Product;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Products were created with AUTO_INCREMENT ids before the pooled generator existed.
+ * Moves the product_seq table past the highest existing id before the first insert,
+ * so new ids never collide with old rows.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductIdSequenceInitializer {
+
+    // Injected so the schema update has created product_seq before this runs
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void alignWithExistingIds() {
+        long floor = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM products", Long.class)
+                + 1 + Product.ID_ALLOCATION_SIZE;
+        int updated = jdbcTemplate.update("UPDATE product_seq SET next_val = ? WHERE next_val < ?", floor, floor);
+        Integer rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM product_seq", Integer.class);
+        if (rows == null || rows == 0) {
+            jdbcTemplate.update("INSERT INTO product_seq (next_val) VALUES (?)", floor);
+            updated = 1;
+        }
+        if (updated > 0) {
+            log.info("Product id sequence moved to {}", floor);
+        }
+    }
+}
@@ -1,15 +1,62 @@
 package com.livecommerce.product.repository;
 
 import com.livecommerce.product.domain.Product;
+import com.livecommerce.product.dto.CategoryFacet;
+import com.livecommerce.product.dto.ProductSummary;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
 import java.util.List;
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
-    List<Product> findByCategory(String category);
+    // Keyset pages of list rows: callers pass the last id they saw, 0 for the first page.
+    // Only the summary columns are selected and nothing enters the persistence context.
+    String SUMMARY = "SELECT new com.livecommerce.product.dto.ProductSummary(" +
+            "p.id, p.name, p.price, p.category, p.stock, p.live, p.imageUrl) FROM Product p ";
+
+    @Query(SUMMARY + "WHERE p.id > :afterId ORDER BY p.id")
+    List<ProductSummary> findSummaries(@Param("afterId") Long afterId, Limit limit);
+
+    @Query(SUMMARY + "WHERE p.category = :category AND p.id > :afterId ORDER BY p.id")
+    List<ProductSummary> findSummariesByCategory(@Param("category") String category, @Param("afterId") Long afterId, Limit limit);
 
-    List<Product> findByNameContainingIgnoreCase(String keyword);
+    @Query(SUMMARY + "WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) AND p.id > :afterId ORDER BY p.id")
+    List<ProductSummary> findSummariesByName(@Param("keyword") String keyword, @Param("afterId") Long afterId, Limit limit);
+
+    @Query(SUMMARY + "WHERE p.live = true ORDER BY p.id")
+    List<ProductSummary> findLiveSummaries();
 
     List<Product> findByLiveTrue();
+
+    List<Product> findByImageUrlIsNotNullAndImageVariantsIsNull(Limit limit);
+
+    // Only used until the in-memory facet counters are built
+    @Query("SELECT new com.livecommerce.product.dto.CategoryFacet(p.category, COUNT(p), " +
+            "SUM(CASE WHEN p.live = true THEN 1L ELSE 0L END), SUM(CASE WHEN p.stock > 0 THEN 1L ELSE 0L END)) " +
+            "FROM Product p WHERE p.category IS NOT NULL GROUP BY p.category ORDER BY p.category")
+    List<CategoryFacet> countByCategory();
+
+    // Guarded by imageUrl so variants of a replaced image are never recorded
+    @Transactional
+    @Modifying
+    @Query("UPDATE Product p SET p.imageVariants = :variants WHERE p.id = :id AND p.imageUrl = :imageUrl")
+    int updateImageVariants(@Param("id") Long id, @Param("imageUrl") String imageUrl, @Param("variants") String variants);
+
+    // Check and decrement in one statement, returns 0 when the product is missing or short on stock
+    @Transactional
+    @Modifying
+    @Query("UPDATE Product p SET p.stock = p.stock - :quantity WHERE p.id = :id AND p.stock >= :quantity")
+    int decrementStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    // Gives back stock taken by decrementStock, e.g. when a hold expires
+    @Transactional
+    @Modifying
+    @Query("UPDATE Product p SET p.stock = p.stock + :quantity WHERE p.id = :id")
+    int incrementStock(@Param("id") Long id, @Param("quantity") int quantity);
 }
\ No newline at end of file
@@ -0,0 +1,58 @@
+package com.livecommerce.product.repository;
+
+import com.livecommerce.product.domain.Product;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.function.Consumer;
+
+/**
+ * Plain JDBC reads for whole-table walks.
+ * Rows are handed over one at a time straight off a streaming result set, nothing is
+ * collected and no entity ends up in a persistence context.
+ */
+@Repository
+public class ProductStreamRepository {
+
+    private static final String SELECT = "SELECT id, name, description, price, category, live, stock, image_url, "
+            + "image_variants, created_at, updated_at FROM products";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProductStreamRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        // Connector/J streams row by row only with this fetch size
+        this.jdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+    }
+
+    public void forEach(String category, Consumer<Product> consumer) {
+        RowCallbackHandler handler = rs -> consumer.accept(map(rs));
+        if (category != null) {
+            jdbcTemplate.query(SELECT + " WHERE category = ? ORDER BY id", handler, category);
+        } else {
+            jdbcTemplate.query(SELECT + " ORDER BY id", handler);
+        }
+    }
+
+    private static Product map(ResultSet rs) throws SQLException {
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        Timestamp updatedAt = rs.getTimestamp("updated_at");
+        return Product.builder()
+                .id(rs.getLong("id"))
+                .name(rs.getString("name"))
+                .description(rs.getString("description"))
+                .price(rs.getBigDecimal("price"))
+                .category(rs.getString("category"))
+                .live(rs.getBoolean("live"))
+                .stock(rs.getObject("stock", Integer.class))
+                .imageUrl(rs.getString("image_url"))
+                .imageVariants(rs.getString("image_variants"))
+                .createdAt(createdAt != null ? createdAt.toLocalDateTime() : null)
+                .updatedAt(updatedAt != null ? updatedAt.toLocalDateTime() : null)
+                .build();
+    }
+}
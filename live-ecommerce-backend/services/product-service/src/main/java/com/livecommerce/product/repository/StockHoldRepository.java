@@ -0,0 +1,32 @@
+package com.livecommerce.product.repository;
+
+import com.livecommerce.product.domain.StockHold;
+import com.livecommerce.product.domain.StockHoldStatus;
+import com.livecommerce.product.dto.StockHoldDeadline;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface StockHoldRepository extends JpaRepository<StockHold, String> {
+
+    @Query("SELECT new com.livecommerce.product.dto.StockHoldDeadline(h.id, h.expiresAt) FROM StockHold h " +
+            "WHERE h.status = com.livecommerce.product.domain.StockHoldStatus.ACTIVE")
+    List<StockHoldDeadline> findActiveDeadlines();
+
+    // Conditional on ACTIVE, so confirm, release and expiry can race and exactly one of them wins
+    @Modifying
+    @Query("UPDATE StockHold h SET h.status = :status WHERE h.id = :id " +
+            "AND h.status = com.livecommerce.product.domain.StockHoldStatus.ACTIVE")
+    int finish(@Param("id") String id, @Param("status") StockHoldStatus status);
+
+    @Modifying
+    @Query("UPDATE StockHold h SET h.status = com.livecommerce.product.domain.StockHoldStatus.CONFIRMED " +
+            "WHERE h.id = :id AND h.status = com.livecommerce.product.domain.StockHoldStatus.ACTIVE AND h.expiresAt > :now")
+    int confirm(@Param("id") String id, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,9 @@
+package com.livecommerce.product.repository;
+
+import com.livecommerce.product.domain.StockLedgerCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface StockLedgerCheckpointRepository extends JpaRepository<StockLedgerCheckpoint, String> {
+}
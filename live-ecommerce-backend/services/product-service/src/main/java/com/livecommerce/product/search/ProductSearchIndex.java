@@ -0,0 +1,291 @@
+package com.livecommerce.product.search;
+
+import com.livecommerce.product.domain.Product;
+import com.livecommerce.product.repository.ProductStreamRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory inverted index over product name, category and description.
+ * A query token matches a term exactly, as a prefix (sorted term dictionary) or anywhere
+ * inside it (trigram index); every token has to match. Hits are ranked by field weight,
+ * match kind and term rarity. Search reads only this index, never the database.
+ * Writes are serialized, reads run lock-free against the concurrent maps.
+ * The startup scan reads rows that may already be stale: products the write paths added or
+ * removed while it ran are skipped, the write path's version is the newer one.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductSearchIndex {
+
+    private static final float NAME_WEIGHT = 3f;
+    private static final float CATEGORY_WEIGHT = 2f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+
+    private static final float EXACT_BOOST = 1f;
+    private static final float PREFIX_BOOST = 0.6f;
+    private static final float INFIX_BOOST = 0.3f;
+
+    private static final int GRAM = 3;
+
+    private final ProductStreamRepository productStreamRepository;
+
+    // term -> (product id -> field weighted frequency)
+    private final ConcurrentSkipListMap<String, Map<Long, Float>> postings = new ConcurrentSkipListMap<>();
+    // trigram -> terms containing it
+    private final Map<String, Set<String>> grams = new ConcurrentHashMap<>();
+    private final Map<Long, Document> documents = new ConcurrentHashMap<>();
+    // Ids changed by the write paths while the startup scan runs
+    private final Set<Long> touched = ConcurrentHashMap.newKeySet();
+    private volatile boolean ready;
+
+    public record Hit(Product product, float score) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        long start = System.nanoTime();
+        productStreamRepository.forEach(null, product -> {
+            synchronized (this) {
+                if (!touched.contains(product.getId())) {
+                    index(product);
+                }
+            }
+        });
+        ready = true;
+        touched.clear();
+        log.info("Indexed {} products for search in {} ms", documents.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public synchronized void add(Product product) {
+        touch(product.getId());
+        index(product);
+    }
+
+    public synchronized void remove(Long productId) {
+        touch(productId);
+        unindex(productId);
+    }
+
+    private void touch(Long productId) {
+        if (!ready) {
+            touched.add(productId);
+        }
+    }
+
+    private void index(Product product) {
+        unindex(product.getId());
+
+        Map<String, Float> terms = new HashMap<>();
+        addField(terms, product.getName(), NAME_WEIGHT);
+        addField(terms, product.getCategory(), CATEGORY_WEIGHT);
+        addField(terms, product.getDescription(), DESCRIPTION_WEIGHT);
+
+        documents.put(product.getId(), new Document(product.toBuilder().build(), terms));
+        terms.forEach((term, weight) -> {
+            Map<Long, Float> docs = postings.computeIfAbsent(term, t -> {
+                for (String gram : grams(t)) {
+                    grams.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(t);
+                }
+                return new ConcurrentHashMap<>();
+            });
+            docs.put(product.getId(), weight);
+        });
+    }
+
+    private void unindex(Long productId) {
+        Document document = documents.remove(productId);
+        if (document == null) {
+            return;
+        }
+        for (String term : document.terms().keySet()) {
+            Map<Long, Float> docs = postings.get(term);
+            if (docs == null) {
+                continue;
+            }
+            docs.remove(productId);
+            if (docs.isEmpty()) {
+                postings.remove(term);
+                for (String gram : grams(term)) {
+                    Set<String> terms = grams.get(gram);
+                    if (terms != null) {
+                        terms.remove(term);
+                        if (terms.isEmpty()) {
+                            grams.remove(gram);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    // Keeps the stored copy's stock in step with decrements that did not go through add()
+    public void adjustStock(Long productId, int delta) {
+        documents.computeIfPresent(productId, (id, document) -> {
+            Product product = document.product();
+            int stock = product.getStock() != null ? product.getStock() : 0;
+            return new Document(product.toBuilder().stock(stock + delta).build(), document.terms());
+        });
+    }
+
+    // Best match first, ties broken by id; at most limit hits ranked after the cursor (null: from the top)
+    public List<Hit> search(String query, SearchCursor after, int limit) {
+        Set<String> tokens = new LinkedHashSet<>(tokenize(query));
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Float> scores = null;
+        for (String token : tokens) {
+            Map<Long, Float> matches = match(token);
+            if (scores == null) {
+                scores = matches;
+            } else {
+                Map<Long, Float> both = new HashMap<>();
+                for (Map.Entry<Long, Float> hit : scores.entrySet()) {
+                    Float score = matches.get(hit.getKey());
+                    if (score != null) {
+                        both.put(hit.getKey(), hit.getValue() + score);
+                    }
+                }
+                scores = both;
+            }
+            if (scores.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        if (after != null && after.score() == null) {
+            // Cursor from the database fallback: continue from where that product ranks now
+            Float score = scores.get(after.id());
+            if (score == null) {
+                return List.of();
+            }
+            after = new SearchCursor(score, after.id());
+        }
+        SearchCursor from = after;
+        List<Map.Entry<Long, Float>> ranked = new ArrayList<>();
+        for (Map.Entry<Long, Float> hit : scores.entrySet()) {
+            if (from == null || from.precedes(hit.getValue(), hit.getKey())) {
+                ranked.add(hit);
+            }
+        }
+        ranked.sort(Map.Entry.<Long, Float>comparingByValue(Comparator.reverseOrder())
+                .thenComparing(Map.Entry.comparingByKey()));
+
+        List<Hit> hits = new ArrayList<>(Math.min(limit, ranked.size()));
+        for (Map.Entry<Long, Float> hit : ranked) {
+            if (hits.size() == limit) {
+                break;
+            }
+            Document document = documents.get(hit.getKey());
+            if (document != null) {
+                hits.add(new Hit(document.product(), hit.getValue()));
+            }
+        }
+        return hits;
+    }
+
+    // Best score per document for one query token
+    private Map<Long, Float> match(String token) {
+        Map<Long, Float> scores = new HashMap<>();
+        float total = Math.max(1, documents.size());
+
+        NavigableMap<String, Map<Long, Float>> prefixed = postings.subMap(token, true, token + Character.MAX_VALUE, false);
+        for (Map.Entry<String, Map<Long, Float>> term : prefixed.entrySet()) {
+            float boost = term.getKey().equals(token) ? EXACT_BOOST : PREFIX_BOOST;
+            score(scores, term.getValue(), boost, total);
+        }
+
+        if (token.length() >= GRAM) {
+            for (String term : candidates(token)) {
+                if (!term.startsWith(token) && term.contains(token)) {
+                    Map<Long, Float> docs = postings.get(term);
+                    if (docs != null) {
+                        score(scores, docs, INFIX_BOOST, total);
+                    }
+                }
+            }
+        }
+        return scores;
+    }
+
+    private static void score(Map<Long, Float> scores, Map<Long, Float> docs, float boost, float total) {
+        float idf = (float) Math.log(1 + total / docs.size());
+        docs.forEach((id, weight) -> scores.merge(id, weight * boost * idf, Math::max));
+    }
+
+    // Terms holding every trigram of the token
+    private Set<String> candidates(String token) {
+        List<Set<String>> sets = new ArrayList<>();
+        for (String gram : grams(token)) {
+            Set<String> terms = grams.get(gram);
+            if (terms == null) {
+                return Set.of();
+            }
+            sets.add(terms);
+        }
+        sets.sort(Comparator.comparingInt(Set::size));
+        Set<String> result = new LinkedHashSet<>(sets.get(0));
+        for (int i = 1; i < sets.size() && !result.isEmpty(); i++) {
+            result.retainAll(sets.get(i));
+        }
+        return result;
+    }
+
+    private static void addField(Map<String, Float> terms, String text, float weight) {
+        for (String token : tokenize(text)) {
+            terms.merge(token, weight, Float::sum);
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static List<String> grams(String term) {
+        List<String> result = new ArrayList<>();
+        for (int i = 0; i + GRAM <= term.length(); i++) {
+            result.add(term.substring(i, i + GRAM));
+        }
+        return result;
+    }
+
+    private record Document(Product product, Map<String, Float> terms) {
+    }
+}
@@ -0,0 +1,31 @@
+package com.livecommerce.product.search;
+
+/**
+ * Keyset position in a ranked search: the score and id of the last hit on the previous page.
+ * Written as "score:id". A bare id (from a page the database fallback served) has no score;
+ * the index then looks it up among the current hits.
+ */
+public record SearchCursor(Float score, long id) {
+
+    public static SearchCursor parse(String cursor) {
+        int split = cursor.indexOf(':');
+        if (split < 0) {
+            return new SearchCursor(null, Long.parseLong(cursor));
+        }
+        float score = Float.parseFloat(cursor.substring(0, split));
+        if (!Float.isFinite(score)) {
+            throw new NumberFormatException("Not a search cursor: " + cursor);
+        }
+        return new SearchCursor(score, Long.parseLong(cursor.substring(split + 1)));
+    }
+
+    // Hits after this position: lower score, or the same score and a higher id
+    public boolean precedes(float score, long id) {
+        return score < this.score || (score == this.score && id > this.id);
+    }
+
+    @Override
+    public String toString() {
+        return score != null ? score + ":" + id : String.valueOf(id);
+    }
+}
@@ -1,19 +1,65 @@
 package com.livecommerce.product.service.Impl;
 
+import com.livecommerce.product.bulk.ProductImporter;
+import com.livecommerce.product.cache.ProductCache;
 import com.livecommerce.product.domain.Product;
+import com.livecommerce.product.domain.ProductEventType;
+import com.livecommerce.product.domain.StockHold;
+import com.livecommerce.product.domain.StockHoldLine;
+import com.livecommerce.product.domain.StockHoldStatus;
+import com.livecommerce.product.dto.CategoryFacet;
+import com.livecommerce.product.dto.ProductBatch;
+import com.livecommerce.product.dto.ProductImportFormat;
+import com.livecommerce.product.dto.ProductImportResult;
+import com.livecommerce.product.dto.ProductSearchPage;
+import com.livecommerce.product.dto.ProductSummary;
+import com.livecommerce.product.dto.StockHoldRequest;
+import com.livecommerce.product.dto.StockHoldResult;
+import com.livecommerce.product.dto.StockReservationLine;
+import com.livecommerce.product.dto.StockReservationLineResult;
+import com.livecommerce.product.dto.StockReservationResult;
+import com.livecommerce.product.dto.StockReservationStatus;
+import com.livecommerce.product.events.ProductEventOutbox;
+import com.livecommerce.product.facets.CategoryFacets;
+import com.livecommerce.product.live.LiveProductsSnapshot;
+import com.livecommerce.product.live.StockTicker;
 import com.livecommerce.product.repository.ProductRepository;
+import com.livecommerce.product.repository.ProductStreamRepository;
+import com.livecommerce.product.repository.StockHoldRepository;
+import com.livecommerce.product.search.ProductSearchIndex;
+import com.livecommerce.product.search.SearchCursor;
 import com.livecommerce.product.service.ProductService;
+import com.livecommerce.product.stock.StockHolds;
+import com.livecommerce.product.stock.StockLedger;
+import com.livecommerce.product.storage.ImageDerivativePipeline;
+import com.livecommerce.product.storage.ImageStorage;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -21,30 +67,58 @@ import java.util.List;
 public class ProductServiceImpl implements ProductService {
 
     private final ProductRepository productRepository;
+    private final StockLedger stockLedger;
+    private final ProductCache productCache;
+    private final ProductStreamRepository productStreamRepository;
+    private final ProductSearchIndex productSearchIndex;
+    private final LiveProductsSnapshot liveProductsSnapshot;
+    private final StockTicker stockTicker;
+    private final CategoryFacets categoryFacets;
+    private final ImageStorage imageStorage;
+    private final ImageDerivativePipeline imageDerivativePipeline;
+    private final ProductImporter productImporter;
+    private final ProductEventOutbox productEventOutbox;
+    private final StockHolds stockHolds;
+    private final StockHoldRepository stockHoldRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
 
     @Override
     public Product createProduct(Product product, MultipartFile imageFile) {
-        if (imageFile != null && !imageFile.isEmpty()) {
-            try {
-                String fileName = System.currentTimeMillis() + "_" + imageFile.getOriginalFilename();
-                Path path = Paths.get("uploads/" + fileName);
-                Files.createDirectories(path.getParent());
-                Files.write(path, imageFile.getBytes());
-                product.setImageUrl("/uploads/" + fileName);
-            } catch (IOException e) {
-                throw new RuntimeException("Image upload failed", e);
-            }
+        boolean newImage = imageFile != null && !imageFile.isEmpty();
+        if (newImage) {
+            product.setImageUrl(storeImage(imageFile));
         }
+        product.setImageVariants(null);
 
         product.setCreatedAt(LocalDateTime.now());
         product.setUpdatedAt(LocalDateTime.now());
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        productEventOutbox.record(ProductEventType.CREATED, saved.getId(), saved.getStock());
+        afterCommit(() -> stockLedger.track(saved));
+        afterCommit(() -> productSearchIndex.add(saved));
+        afterCommit(() -> categoryFacets.put(saved));
+        if (saved.isLive()) {
+            afterCommit(liveProductsSnapshot::invalidate);
+        }
+        if (newImage) {
+            // Resizing happens in the background, the upload request does not wait for it
+            afterCommit(() -> imageDerivativePipeline.submit(saved.getId(), saved.getImageUrl()));
+        }
+        return saved;
     }
 
     @Override
     public Product updateProduct(Long id, Product product, MultipartFile imageFile) {
+        // The ledger writes back pending decrements and holds new ones until this commits,
+        // so the new stock value replaces them cleanly
+        return stockLedger.override(id, () -> applyUpdate(id, product, imageFile));
+    }
+
+    private Product applyUpdate(Long id, Product product, MultipartFile imageFile) {
         Product existing = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found"));
+        boolean wasLive = existing.isLive();
 
         existing.setName(product.getName());
         existing.setDescription(product.getDescription());
@@ -54,59 +128,355 @@ public class ProductServiceImpl implements ProductService {
         existing.setStock(product.getStock());
         existing.setUpdatedAt(LocalDateTime.now());
 
-        if (imageFile != null && !imageFile.isEmpty()) {
-            try {
-                String fileName = System.currentTimeMillis() + "_" + imageFile.getOriginalFilename();
-                Path path = Paths.get("uploads/" + fileName);
-                Files.createDirectories(path.getParent());
-                Files.write(path, imageFile.getBytes());
-                existing.setImageUrl("/uploads/" + fileName);
-            } catch (IOException e) {
-                throw new RuntimeException("Image upload failed", e);
-            }
+        boolean newImage = imageFile != null && !imageFile.isEmpty();
+        if (newImage) {
+            existing.setImageUrl(storeImage(imageFile));
+            existing.setImageVariants(null);
         }
 
-        return productRepository.save(existing);
+        Product saved = productRepository.save(existing);
+        productEventOutbox.record(ProductEventType.UPDATED, saved.getId(), saved.getStock());
+        productCache.invalidate(id);
+        afterCommit(() -> productSearchIndex.add(saved));
+        afterCommit(() -> categoryFacets.put(saved));
+        afterCommit(() -> stockTicker.stockChanged(id));
+        if (wasLive || saved.isLive()) {
+            afterCommit(liveProductsSnapshot::invalidate);
+        }
+        if (newImage) {
+            afterCommit(() -> imageDerivativePipeline.submit(saved.getId(), saved.getImageUrl()));
+        }
+        return saved;
     }
 
     @Override
     public void deleteProduct(Long id) {
         productRepository.deleteById(id);
+        productEventOutbox.record(ProductEventType.DELETED, id, null);
+        productCache.invalidate(id);
+        // Only once the delete has committed: a rolled back delete must leave a live product tracked
+        afterCommit(() -> stockLedger.untrack(id));
+        afterCommit(() -> productSearchIndex.remove(id));
+        afterCommit(() -> categoryFacets.remove(id));
+        afterCommit(() -> liveProductsSnapshot.productDeleted(id));
     }
 
+    // Served from the cache, a hit never opens a transaction
     @Override
+    @Transactional(Transactional.TxType.SUPPORTS)
     public Product getProductById(Long id) {
-        return productRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Product not found"));
+        Product product = productCache.get(id, key -> productRepository.findById(key)
+                .orElseThrow(() -> new RuntimeException("Product not found")));
+
+        return withLiveStock(product);
+    }
+
+    // One IN query for the whole set, answered in request order
+    @Override
+    public ProductBatch getProductsByIds(List<Long> ids) {
+        List<Long> requested = new ArrayList<>(new LinkedHashSet<>(ids));
+        Map<Long, Product> found = new HashMap<>();
+        for (Product product : productRepository.findAllById(requested)) {
+            found.put(product.getId(), product);
+        }
+
+        List<Product> products = new ArrayList<>(found.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : requested) {
+            Product product = found.get(id);
+            if (product != null) {
+                products.add(withLiveStock(product));
+            } else {
+                missing.add(id);
+            }
+        }
+        return new ProductBatch(products, missing);
+    }
+
+    @Override
+    public List<ProductSummary> getAllProducts(Long afterId, int limit) {
+        return withLiveStock(productRepository.findSummaries(cursor(afterId), Limit.of(limit)));
+    }
+
+    @Override
+    public List<ProductSummary> getProductsByCategory(String category, Long afterId, int limit) {
+        return withLiveStock(productRepository.findSummariesByCategory(category, cursor(afterId), Limit.of(limit)));
+    }
+
+    // Ranked hits from the in-memory index, paged by (score, id) so a page never depends on where
+    // the previous page's last hit ranks now
+    @Override
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public ProductSearchPage searchProducts(String keyword, SearchCursor after, int limit) {
+        if (!productSearchIndex.isReady()) {
+            // Index still loading right after startup
+            List<ProductSummary> page = withLiveStock(productRepository.findSummariesByName(
+                    keyword, after != null ? after.id() : 0L, Limit.of(limit)));
+            String next = page.size() == limit ? String.valueOf(page.get(page.size() - 1).getId()) : null;
+            return new ProductSearchPage(page, next);
+        }
+
+        List<ProductSearchIndex.Hit> hits = productSearchIndex.search(keyword, after, limit);
+        String next = null;
+        if (hits.size() == limit) {
+            ProductSearchIndex.Hit last = hits.get(hits.size() - 1);
+            next = new SearchCursor(last.score(), last.product().getId()).toString();
+        }
+        return new ProductSearchPage(withLiveStock(hits.stream()
+                .map(hit -> ProductSummary.from(hit.product()))
+                .toList()), next);
+    }
+
+    // Runs on the async response thread; the result set is streamed, so no transaction around it
+    @Override
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public void exportProducts(String category, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(Product.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            // One object per line: newline after each row instead of Jackson's space between root values
+            generator.setRootValueSeparator(null);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            int[] rows = {0};
+            try {
+                productStreamRepository.forEach(category, product -> {
+                    try {
+                        writer.writeValue(generator, product);
+                        generator.writeRaw('\n');
+                        if (++rows[0] % 500 == 0) {
+                            generator.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
     }
 
+    // Every batch commits on its own inside the importer, the request itself holds no transaction
     @Override
-    public List<Product> getAllProducts() {
-        return productRepository.findAll();
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public ProductImportResult importProducts(InputStream in, ProductImportFormat format) throws IOException {
+        boolean[] anyLive = {false};
+        ProductImportResult result = productImporter.importProducts(in, format, saved -> {
+            for (Product product : saved) {
+                stockLedger.track(product);
+                productSearchIndex.add(product);
+                categoryFacets.put(product);
+                anyLive[0] |= product.isLive();
+            }
+        });
+        if (anyLive[0]) {
+            liveProductsSnapshot.invalidate();
+        }
+        return result;
     }
 
     @Override
-    public List<Product> getProductsByCategory(String category) {
-        return productRepository.findByCategory(category);
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public List<ProductSummary> getLiveProducts() {
+        return liveProductsSnapshot.current().products();
     }
 
     @Override
-    public List<Product> searchProducts(String keyword) {
-        return productRepository.findByNameContainingIgnoreCase(keyword);
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public LiveProductsSnapshot.Snapshot getLiveProductsSnapshot() {
+        return liveProductsSnapshot.current();
     }
 
     @Override
-    public List<Product> getLiveProducts() {
-        return productRepository.findByLiveTrue();
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public List<CategoryFacet> getCategoryFacets() {
+        return categoryFacets.isReady() ? categoryFacets.facets() : productRepository.countByCategory();
     }
+
+    // No surrounding transaction: a ledger hit must not check out a DB connection
     @Override
+    @Transactional(Transactional.TxType.SUPPORTS)
     public void reduceStock(Long productId, Integer quantity) {
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new RuntimeException("Product not found"));
-        if (product.getStock() < quantity) {
+        // Live products are served by the in-memory ledger
+        if (stockLedger.reduce(productId, quantity)) {
+            categoryFacets.adjustStock(productId, -quantity);
+            liveProductsSnapshot.stockChanged(productId);
+            stockTicker.stockChanged(productId);
+            return;
+        }
+        // Decrement and its change event commit together
+        Boolean decremented = transactionTemplate.execute(status -> {
+            if (productRepository.decrementStock(productId, quantity) == 0) {
+                return false;
+            }
+            productEventOutbox.record(ProductEventType.STOCK_CHANGED, productId, null);
+            return true;
+        });
+        if (!Boolean.TRUE.equals(decremented)) {
+            Product product = productRepository.findById(productId)
+                    .orElseThrow(() -> new RuntimeException("Product not found"));
             throw new RuntimeException("Insufficient stock for product " + product.getName());
         }
-        product.setStock(product.getStock() - quantity);
-        productRepository.save(product);
+        productCache.invalidate(productId);
+        productSearchIndex.adjustStock(productId, -quantity);
+        categoryFacets.adjustStock(productId, -quantity);
+        liveProductsSnapshot.stockChanged(productId);
+        stockTicker.stockChanged(productId);
+    }
+
+    @Override
+    public StockReservationResult reserveStock(List<StockReservationLine> lines) {
+        // Same product on several lines is reserved once; ascending ids keep row locks in a fixed order
+        Map<Long, Integer> totals = new TreeMap<>();
+        Map<Long, StockReservationStatus> failures = new HashMap<>();
+        for (StockReservationLine line : lines) {
+            if (line.getProductId() == null || line.getQuantity() == null || line.getQuantity() <= 0) {
+                failures.put(line.getProductId(), StockReservationStatus.INVALID_QUANTITY);
+            } else {
+                totals.merge(line.getProductId(), line.getQuantity(), Integer::sum);
+            }
+        }
+
+        Map<Long, Integer> fromLedger = new HashMap<>();
+        Map<Long, Integer> fromDatabase = new HashMap<>();
+        if (failures.isEmpty()) {
+            for (Map.Entry<Long, Integer> total : totals.entrySet()) {
+                Long productId = total.getKey();
+                int quantity = total.getValue();
+                StockLedger.Result result = stockLedger.take(productId, quantity);
+                if (result == StockLedger.Result.TAKEN) {
+                    fromLedger.put(productId, quantity);
+                } else if (result == StockLedger.Result.INSUFFICIENT) {
+                    failures.put(productId, StockReservationStatus.INSUFFICIENT_STOCK);
+                } else if (productRepository.decrementStock(productId, quantity) == 0) {
+                    failures.put(productId, productRepository.existsById(productId)
+                            ? StockReservationStatus.INSUFFICIENT_STOCK
+                            : StockReservationStatus.NOT_FOUND);
+                } else {
+                    fromDatabase.put(productId, quantity);
+                    productCache.invalidate(productId);
+                }
+            }
+        }
+        if (failures.isEmpty() && !fromDatabase.isEmpty()) {
+            // Ledger products get their event when the ledger writes back
+            Map<Long, Integer> changed = new HashMap<>();
+            fromDatabase.keySet().forEach(productId -> changed.put(productId, null));
+            productEventOutbox.recordStockChanges(changed);
+        }
+
+        boolean reserved = failures.isEmpty();
+        if (reserved) {
+            // Ledger stock is not part of the DB transaction, hand it back if the commit fails
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        fromLedger.forEach(stockLedger::release);
+                    } else {
+                        fromDatabase.forEach((productId, quantity) -> productSearchIndex.adjustStock(productId, -quantity));
+                        totals.forEach((productId, quantity) -> categoryFacets.adjustStock(productId, -quantity));
+                    }
+                    totals.keySet().forEach(liveProductsSnapshot::stockChanged);
+                    totals.keySet().forEach(stockTicker::stockChanged);
+                }
+            });
+        } else {
+            fromLedger.forEach(stockLedger::release);
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+        }
+
+        List<StockReservationLineResult> results = lines.stream()
+                .map(line -> StockReservationLineResult.builder()
+                        .productId(line.getProductId())
+                        .quantity(line.getQuantity())
+                        .status(reserved
+                                ? StockReservationStatus.RESERVED
+                                : failures.getOrDefault(line.getProductId(), StockReservationStatus.ROLLED_BACK))
+                        .build())
+                .toList();
+        return new StockReservationResult(reserved, results);
+    }
+
+    @Override
+    public StockHoldResult placeHold(StockHoldRequest request) {
+        StockReservationResult reservation = reserveStock(request.getLines());
+        if (!reservation.isReserved()) {
+            return StockHoldResult.builder().reserved(false).lines(reservation.getLines()).build();
+        }
+        Map<Long, Integer> totals = new TreeMap<>();
+        request.getLines().forEach(line -> totals.merge(line.getProductId(), line.getQuantity(), Integer::sum));
+        LocalDateTime expiresAt = stockHolds.expiresAt(request.getTtlSeconds());
+        StockHold hold = stockHoldRepository.save(StockHold.builder()
+                .id(UUID.randomUUID().toString())
+                .status(StockHoldStatus.ACTIVE)
+                .expiresAt(expiresAt)
+                .createdAt(LocalDateTime.now())
+                .lines(totals.entrySet().stream()
+                        .map(total -> new StockHoldLine(total.getKey(), total.getValue()))
+                        .collect(Collectors.toCollection(ArrayList::new)))
+                .build());
+        // Only committed holds go into the wheel
+        afterCommit(() -> stockHolds.schedule(hold.getId(), expiresAt));
+        return StockHoldResult.builder()
+                .holdId(hold.getId())
+                .expiresAt(expiresAt)
+                .reserved(true)
+                .lines(reservation.getLines())
+                .build();
+    }
+
+    @Override
+    public boolean confirmHold(String holdId) {
+        return stockHolds.confirm(holdId);
+    }
+
+    @Override
+    public boolean releaseHold(String holdId) {
+        return stockHolds.release(holdId);
+    }
+
+    private String storeImage(MultipartFile imageFile) {
+        try {
+            return imageStorage.store(imageFile);
+        } catch (IOException e) {
+            throw new RuntimeException("Image upload failed", e);
+        }
+    }
+
+    // Live stock lives in the ledger, hand out a copy so cached and indexed instances stay untouched
+    private Product withLiveStock(Product product) {
+        Long available = stockLedger.available(product.getId());
+        return available == null ? product : product.toBuilder().stock(available.intValue()).build();
+    }
+
+    // Summaries are built per request, so the ledger count is written straight into them
+    private List<ProductSummary> withLiveStock(List<ProductSummary> summaries) {
+        for (ProductSummary summary : summaries) {
+            if (summary.isLive()) {
+                Long available = stockLedger.available(summary.getId());
+                if (available != null) {
+                    summary.setStock(available.intValue());
+                }
+            }
+        }
+        return summaries;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static long cursor(Long afterId) {
+        return afterId != null ? afterId : 0L;
     }
-}
\ No newline at end of file
+}
@@ -1,8 +1,23 @@
 package com.livecommerce.product.service;
 
 import com.livecommerce.product.domain.Product;
+import com.livecommerce.product.dto.CategoryFacet;
+import com.livecommerce.product.dto.ProductBatch;
+import com.livecommerce.product.dto.ProductImportFormat;
+import com.livecommerce.product.dto.ProductImportResult;
+import com.livecommerce.product.dto.ProductSearchPage;
+import com.livecommerce.product.dto.ProductSummary;
+import com.livecommerce.product.dto.StockHoldRequest;
+import com.livecommerce.product.dto.StockHoldResult;
+import com.livecommerce.product.dto.StockReservationLine;
+import com.livecommerce.product.dto.StockReservationResult;
+import com.livecommerce.product.live.LiveProductsSnapshot;
+import com.livecommerce.product.search.SearchCursor;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
 
 public interface ProductService {
@@ -10,9 +25,18 @@ public interface ProductService {
     Product updateProduct(Long id, Product product, MultipartFile imageFile);
     void deleteProduct(Long id);
     Product getProductById(Long id);
-    List<Product> getAllProducts();
-    List<Product> getProductsByCategory(String category);
-    List<Product> searchProducts(String keyword);
-    List<Product> getLiveProducts();
+    ProductBatch getProductsByIds(List<Long> ids);
+    List<ProductSummary> getAllProducts(Long afterId, int limit);
+    List<ProductSummary> getProductsByCategory(String category, Long afterId, int limit);
+    ProductSearchPage searchProducts(String keyword, SearchCursor after, int limit);
+    void exportProducts(String category, OutputStream out) throws IOException;
+    ProductImportResult importProducts(InputStream in, ProductImportFormat format) throws IOException;
+    List<ProductSummary> getLiveProducts();
+    LiveProductsSnapshot.Snapshot getLiveProductsSnapshot();
+    List<CategoryFacet> getCategoryFacets();
     void reduceStock(Long productId, Integer quantity);
+    StockReservationResult reserveStock(List<StockReservationLine> lines);
+    StockHoldResult placeHold(StockHoldRequest request);
+    boolean confirmHold(String holdId);
+    boolean releaseHold(String holdId);
 }
\ No newline at end of file
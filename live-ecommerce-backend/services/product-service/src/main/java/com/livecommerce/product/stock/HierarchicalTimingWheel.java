@@ -0,0 +1,123 @@
+package com.livecommerce.product.stock;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel: adding a timer and expiring one are O(1), whatever the number
+ * of pending timers. Level 0 has one slot per tick; each level above covers a whole
+ * rotation of the level below per slot. When a lower level wraps, the matching slot of the
+ * level above is re-spread into the finer levels, so a timer is moved at most once per level.
+ * Timers never fire early, at most one tick late. Cancelling is left to the caller: skip
+ * items that are no longer wanted when they come out of advance().
+ * Not thread-safe on its own, callers synchronize.
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private record Timer<T>(T item, long deadlineTick) {
+    }
+
+    private final long tickMillis;
+    private final int bits;
+    private final long mask;
+    private final int levels;
+    private final long maxDelta;
+    private final List<Timer<T>>[][] slots;
+    private long currentTick;
+    private long size;
+
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(long tickMillis, int bits, int levels, long nowMillis) {
+        this.tickMillis = tickMillis;
+        this.bits = bits;
+        this.mask = (1L << bits) - 1;
+        this.levels = levels;
+        this.maxDelta = 1L << (bits * levels);
+        this.slots = new List[levels][1 << bits];
+        this.currentTick = nowMillis / tickMillis;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Schedules item for deadlineMillis.
+     * Returns false without scheduling when the deadline is already due.
+     */
+    public boolean add(T item, long deadlineMillis) {
+        // Rounded up so a timer never fires before its deadline
+        long deadlineTick = (deadlineMillis + tickMillis - 1) / tickMillis;
+        if (deadlineTick <= currentTick) {
+            return false;
+        }
+        place(new Timer<>(item, deadlineTick));
+        size++;
+        return true;
+    }
+
+    // Moves the wheel up to nowMillis and returns everything that came due, oldest first
+    public List<T> advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        List<T> expired = new ArrayList<>();
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade();
+            int slot = (int) (currentTick & mask);
+            List<Timer<T>> due = slots[0][slot];
+            if (due != null) {
+                slots[0][slot] = null;
+                for (Timer<T> timer : due) {
+                    expired.add(timer.item());
+                }
+                size -= due.size();
+            }
+        }
+        return expired;
+    }
+
+    private void place(Timer<T> timer) {
+        long delta = timer.deadlineTick() - currentTick;
+        int level = 0;
+        while (level < levels - 1 && delta >= 1L << (bits * (level + 1))) {
+            level++;
+        }
+        // Beyond the top level's range: park it in the furthest slot, it is placed again on cascade
+        long tick = delta < maxDelta ? timer.deadlineTick() : currentTick + maxDelta - 1;
+        int slot = (int) ((tick >>> (bits * level)) & mask);
+        List<Timer<T>> bucket = slots[level][slot];
+        if (bucket == null) {
+            bucket = new ArrayList<>();
+            slots[level][slot] = bucket;
+        }
+        bucket.add(timer);
+    }
+
+    // On a wrap of level i-1, re-spread the current slot of level i; higher levels first
+    private void cascade() {
+        int top = 0;
+        while (top < levels - 1 && (currentTick & ((1L << (bits * (top + 1))) - 1)) == 0) {
+            top++;
+        }
+        for (int level = top; level >= 1; level--) {
+            int slot = (int) ((currentTick >>> (bits * level)) & mask);
+            List<Timer<T>> bucket = slots[level][slot];
+            if (bucket != null) {
+                slots[level][slot] = null;
+                for (Timer<T> timer : bucket) {
+                    if (timer.deadlineTick() <= currentTick) {
+                        // Due exactly now: hand it to level 0's current slot
+                        List<Timer<T>> now = slots[0][(int) (currentTick & mask)];
+                        if (now == null) {
+                            now = new ArrayList<>();
+                            slots[0][(int) (currentTick & mask)] = now;
+                        }
+                        now.add(timer);
+                    } else {
+                        place(timer);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.livecommerce.product.stock;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Keeps product-service down to one running instance.
+ * Live stock, the hold wheel and the product cache are per JVM, so a second instance would sell
+ * the same units again. At startup this takes a MySQL named lock (GET_LOCK) on a connection it
+ * holds for the life of the process, and startup fails while another instance has it.
+ * MySQL releases the lock with the connection, so a crashed instance never blocks its replacement;
+ * a replacement started during a rolling deploy waits up to wait-seconds for the old one to stop.
+ */
+@Slf4j
+@Component
+public class InstanceLock {
+
+    private static final String ACQUIRE_SQL = "SELECT GET_LOCK(?, ?)";
+    private static final String HELD_SQL = "SELECT IS_USED_LOCK(?) = CONNECTION_ID()";
+    private static final String RELEASE_SQL = "SELECT RELEASE_LOCK(?)";
+
+    private final DataSource dataSource;
+    private final String name;
+    private Connection connection;
+
+    public InstanceLock(DataSource dataSource,
+                        @Value("${product.instance-lock.name:live-commerce.product-service}") String name,
+                        @Value("${product.instance-lock.wait-seconds:30}") int waitSeconds) {
+        this.dataSource = dataSource;
+        this.name = name;
+        this.connection = acquire(waitSeconds);
+        if (connection == null) {
+            throw new IllegalStateException("Another product-service instance holds the lock '" + name
+                    + "'; product-service must run as a single instance");
+        }
+        log.info("Holding product-service instance lock '{}'", name);
+    }
+
+    // The lock lives as long as its connection: re-take it on a new one if the connection died
+    @Scheduled(fixedDelayString = "${product.instance-lock.check-interval-ms:10000}")
+    public synchronized void check() {
+        if (held()) {
+            return;
+        }
+        closeQuietly();
+        connection = acquire(0);
+        if (connection == null) {
+            log.error("Lost product-service instance lock '{}' and another instance holds it now; "
+                    + "stock is no longer safe while both run", name);
+        } else {
+            log.warn("Re-took product-service instance lock '{}' after its connection was lost", name);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void release() {
+        if (connection == null) {
+            return;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(RELEASE_SQL)) {
+            statement.setString(1, name);
+            statement.execute();
+        } catch (SQLException e) {
+            log.warn("Could not release product-service instance lock '{}'", name, e);
+        }
+        closeQuietly();
+    }
+
+    // A connection holding the lock, or null when another session has it
+    private Connection acquire(int waitSeconds) {
+        Connection candidate = null;
+        try {
+            candidate = dataSource.getConnection();
+            try (PreparedStatement statement = candidate.prepareStatement(ACQUIRE_SQL)) {
+                statement.setString(1, name);
+                statement.setInt(2, waitSeconds);
+                try (ResultSet rs = statement.executeQuery()) {
+                    if (rs.next() && rs.getInt(1) == 1) {
+                        return candidate;
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            log.error("Could not take product-service instance lock '{}'", name, e);
+        }
+        if (candidate != null) {
+            try {
+                candidate.close();
+            } catch (SQLException ignored) {
+            }
+        }
+        return null;
+    }
+
+    private boolean held() {
+        if (connection == null) {
+            return false;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(HELD_SQL)) {
+            statement.setString(1, name);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void closeQuietly() {
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (SQLException ignored) {
+            }
+            connection = null;
+        }
+    }
+}
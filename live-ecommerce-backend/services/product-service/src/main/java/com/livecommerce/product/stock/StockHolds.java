@@ -0,0 +1,250 @@
+package com.livecommerce.product.stock;
+
+import com.livecommerce.product.cache.ProductCache;
+import com.livecommerce.product.domain.StockHold;
+import com.livecommerce.product.domain.StockHoldLine;
+import com.livecommerce.product.domain.StockHoldStatus;
+import com.livecommerce.product.dto.StockHoldDeadline;
+import com.livecommerce.product.events.ProductEventOutbox;
+import com.livecommerce.product.facets.CategoryFacets;
+import com.livecommerce.product.live.LiveProductsSnapshot;
+import com.livecommerce.product.live.StockTicker;
+import com.livecommerce.product.repository.ProductRepository;
+import com.livecommerce.product.repository.StockHoldRepository;
+import com.livecommerce.product.search.ProductSearchIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Expiry and settlement of stock holds.
+ * Every active hold sits in a hierarchical timing wheel keyed by its id; one tick advances the
+ * wheel and gives back the stock of whatever came due. Holds are rows in stock_holds, so after
+ * a restart the wheel is refilled from the table and overdue holds expire straight away.
+ * Confirm, early release and expiry each flip the row from ACTIVE with a conditional update,
+ * so a hold is settled exactly once even when they race. The stock goes back onto the products
+ * row in that same transaction, live products included, so a crash right after the commit
+ * loses nothing: the ledger reloads its counters from those rows on start.
+ */
+@Slf4j
+@Component
+public class StockHolds {
+
+    private static final int EXPIRE_BATCH = 500;
+
+    private final StockHoldRepository stockHoldRepository;
+    private final ProductRepository productRepository;
+    private final StockLedger stockLedger;
+    private final ProductEventOutbox productEventOutbox;
+    private final ProductCache productCache;
+    private final ProductSearchIndex productSearchIndex;
+    private final CategoryFacets categoryFacets;
+    private final LiveProductsSnapshot liveProductsSnapshot;
+    private final StockTicker stockTicker;
+    private final TransactionTemplate transactionTemplate;
+    private final long defaultTtlSeconds;
+    private final long maxTtlSeconds;
+    private final HierarchicalTimingWheel<String> wheel;
+    // Holds that were already due when scheduled
+    private final Queue<String> overdue = new ConcurrentLinkedQueue<>();
+    private volatile boolean started;
+
+    // Stock given back by one settlement, split by whether a ledger counter has to catch up
+    private record Returned(Map<Long, Integer> ledger, Map<Long, Integer> database) {
+        Returned() {
+            this(new HashMap<>(), new HashMap<>());
+        }
+    }
+
+    public StockHolds(StockHoldRepository stockHoldRepository,
+                      ProductRepository productRepository,
+                      StockLedger stockLedger,
+                      ProductEventOutbox productEventOutbox,
+                      ProductCache productCache,
+                      ProductSearchIndex productSearchIndex,
+                      CategoryFacets categoryFacets,
+                      LiveProductsSnapshot liveProductsSnapshot,
+                      StockTicker stockTicker,
+                      PlatformTransactionManager transactionManager,
+                      @Value("${product.stock-holds.tick-ms:100}") long tickMillis,
+                      @Value("${product.stock-holds.default-ttl-seconds:900}") long defaultTtlSeconds,
+                      @Value("${product.stock-holds.max-ttl-seconds:3600}") long maxTtlSeconds) {
+        this.stockHoldRepository = stockHoldRepository;
+        this.productRepository = productRepository;
+        this.stockLedger = stockLedger;
+        this.productEventOutbox = productEventOutbox;
+        this.productCache = productCache;
+        this.productSearchIndex = productSearchIndex;
+        this.categoryFacets = categoryFacets;
+        this.liveProductsSnapshot = liveProductsSnapshot;
+        this.stockTicker = stockTicker;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.defaultTtlSeconds = defaultTtlSeconds;
+        this.maxTtlSeconds = maxTtlSeconds;
+        // 64 slots per level, 4 levels: about 19 days of range at 100 ms ticks
+        this.wheel = new HierarchicalTimingWheel<>(tickMillis, 6, 4, System.currentTimeMillis());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        List<StockHoldDeadline> active = stockHoldRepository.findActiveDeadlines();
+        active.forEach(hold -> schedule(hold.id(), hold.expiresAt()));
+        started = true;
+        log.info("Loaded {} active stock holds", active.size());
+    }
+
+    public LocalDateTime expiresAt(Integer ttlSeconds) {
+        long ttl = ttlSeconds == null || ttlSeconds <= 0 ? defaultTtlSeconds : Math.min(ttlSeconds, maxTtlSeconds);
+        return LocalDateTime.now().plusSeconds(ttl);
+    }
+
+    public void schedule(String holdId, LocalDateTime expiresAt) {
+        long deadline = expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        boolean scheduled;
+        synchronized (wheel) {
+            scheduled = wheel.add(holdId, deadline);
+        }
+        if (!scheduled) {
+            overdue.add(holdId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${product.stock-holds.tick-ms:100}")
+    public void tick() {
+        // Releases go through the ledger for live products, so wait for it
+        if (!started || !stockLedger.isStarted()) {
+            return;
+        }
+        List<String> due;
+        synchronized (wheel) {
+            due = wheel.advance(System.currentTimeMillis());
+        }
+        String holdId;
+        while ((holdId = overdue.poll()) != null) {
+            due.add(holdId);
+        }
+        for (int from = 0; from < due.size(); from += EXPIRE_BATCH) {
+            List<String> batch = due.subList(from, Math.min(due.size(), from + EXPIRE_BATCH));
+            try {
+                expire(batch);
+            } catch (RuntimeException e) {
+                log.error("Expiring {} stock holds failed, retrying on the next tick", batch.size(), e);
+                overdue.addAll(batch);
+            }
+        }
+    }
+
+    // Joins the caller's transaction; false when the hold is unknown, released, expired or already past its expiry.
+    // Confirming twice succeeds, so a caller whose own write failed after the first confirm can retry
+    public boolean confirm(String holdId) {
+        if (stockHoldRepository.confirm(holdId, LocalDateTime.now()) == 1) {
+            return true;
+        }
+        return stockHoldRepository.findById(holdId)
+                .map(hold -> hold.getStatus() == StockHoldStatus.CONFIRMED)
+                .orElse(false);
+    }
+
+    // Gives the stock back before the hold runs out; joins the caller's transaction
+    public boolean release(String holdId) {
+        Returned returned = new Returned();
+        if (!settle(holdId, StockHoldStatus.RELEASED, returned)) {
+            return false;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    returned(returned);
+                }
+            });
+        } else {
+            returned(returned);
+        }
+        return true;
+    }
+
+    public long pending() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+
+    private void expire(List<String> holdIds) {
+        Returned returned = new Returned();
+        Integer expired = transactionTemplate.execute(status -> {
+            int count = 0;
+            for (String holdId : holdIds) {
+                // Confirmed or released holds are skipped here, that is the wheel's cancellation
+                if (settle(holdId, StockHoldStatus.EXPIRED, returned)) {
+                    count++;
+                }
+            }
+            return count;
+        });
+        returned(returned);
+        if (expired != null && expired > 0) {
+            log.debug("Expired {} stock holds", expired);
+        }
+    }
+
+    // Flips the hold out of ACTIVE and puts its stock back on the products rows; the ledger counters
+    // of live products catch up after commit
+    private boolean settle(String holdId, StockHoldStatus status, Returned returned) {
+        if (stockHoldRepository.finish(holdId, status) == 0) {
+            return false;
+        }
+        Optional<StockHold> hold = stockHoldRepository.findById(holdId);
+        if (hold.isEmpty()) {
+            return true;
+        }
+        Map<Long, Integer> changed = new HashMap<>();
+        for (StockHoldLine line : hold.get().getLines()) {
+            productRepository.incrementStock(line.getProductId(), line.getQuantity());
+            changed.put(line.getProductId(), null);
+            // Wherever the product's stock lives now, not where it was taken from
+            if (stockLedger.isTracked(line.getProductId())) {
+                returned.ledger().merge(line.getProductId(), line.getQuantity(), Integer::sum);
+            } else {
+                returned.database().merge(line.getProductId(), line.getQuantity(), Integer::sum);
+            }
+        }
+        if (!changed.isEmpty()) {
+            productEventOutbox.recordStockChanges(changed);
+        }
+        return true;
+    }
+
+    private void returned(Returned returned) {
+        returned.ledger().forEach(stockLedger::restocked);
+        returned.database().forEach((productId, quantity) -> {
+            productCache.invalidate(productId);
+            productSearchIndex.adjustStock(productId, quantity);
+        });
+        List<Long> productIds = new ArrayList<>(returned.ledger().keySet());
+        productIds.addAll(returned.database().keySet());
+        for (Long productId : productIds) {
+            int quantity = returned.ledger().getOrDefault(productId, 0) + returned.database().getOrDefault(productId, 0);
+            categoryFacets.adjustStock(productId, quantity);
+            liveProductsSnapshot.stockChanged(productId);
+            stockTicker.stockChanged(productId);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.livecommerce.product.stock;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Append-only replay log for ledger decrements.
+ * Every accepted decrement is written as a fixed 16 byte record before the caller is answered,
+ * stock handed back is written the same way with a negative quantity.
+ * The log is split into numbered segments: the flusher seals the current segment, applies it
+ * to MySQL and only then deletes it, so a crash at any point can be recovered by replaying
+ * every segment newer than the last checkpoint.
+ * Without syncWrites an answered record may still sit in the OS page cache: it survives the
+ * process dying, not the host losing power. syncWrites opens segments with DSYNC, one disk
+ * write per decrement, for the latter.
+ */
+public class StockJournal implements Closeable {
+
+    static final int RECORD_SIZE = 16;
+    private static final String PREFIX = "segment-";
+    private static final String SUFFIX = ".log";
+
+    private final Path directory;
+    private final boolean syncWrites;
+    private volatile Segment current;
+
+    public StockJournal(Path directory, boolean syncWrites) throws IOException {
+        this.directory = directory;
+        this.syncWrites = syncWrites;
+        Files.createDirectories(directory);
+    }
+
+    // Segment ids already on disk, oldest first
+    public List<Long> segments() throws IOException {
+        List<Long> ids = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                ids.add(Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length())));
+            }
+        }
+        Collections.sort(ids);
+        return ids;
+    }
+
+    public synchronized void start(long segmentId) throws IOException {
+        if (current != null) {
+            throw new IllegalStateException("Journal already started");
+        }
+        current = open(segmentId);
+    }
+
+    public void append(long productId, int quantity) throws IOException {
+        ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE)
+                .putLong(productId)
+                .putInt(quantity)
+                .putInt(checksum(productId, quantity))
+                .flip();
+
+        while (true) {
+            Segment segment = current;
+            if (segment == null) {
+                throw new IllegalStateException("Journal not started");
+            }
+            segment.writers.increment();
+            try {
+                // Lost a race with rotate(), retry on the new segment
+                if (segment != current) {
+                    continue;
+                }
+                while (record.hasRemaining()) {
+                    segment.channel.write(record);
+                }
+                return;
+            } finally {
+                segment.writers.decrement();
+            }
+        }
+    }
+
+    // Seals the current segment and opens the next one, returns the id of the sealed segment
+    public synchronized long rotate() throws IOException {
+        Segment sealed = current;
+        current = open(sealed.id + 1);
+        while (sealed.writers.sum() != 0) {
+            Thread.onSpinWait();
+        }
+        sealed.channel.force(false);
+        sealed.channel.close();
+        return sealed.id;
+    }
+
+    public long currentSegment() {
+        return current.id;
+    }
+
+    // Sums the decrements recorded in the given segments per product, stops at a torn tail record
+    public Map<Long, Long> read(List<Long> segmentIds) throws IOException {
+        Map<Long, Long> deltas = new HashMap<>();
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE * 4096);
+        for (Long id : segmentIds) {
+            try (FileChannel channel = FileChannel.open(path(id), StandardOpenOption.READ)) {
+                buffer.clear();
+                boolean intact = true;
+                while (intact && channel.read(buffer) > 0) {
+                    buffer.flip();
+                    while (buffer.remaining() >= RECORD_SIZE) {
+                        long productId = buffer.getLong();
+                        int quantity = buffer.getInt();
+                        if (buffer.getInt() != checksum(productId, quantity)) {
+                            intact = false;
+                            break;
+                        }
+                        deltas.merge(productId, (long) quantity, Long::sum);
+                    }
+                    buffer.compact();
+                }
+            }
+        }
+        return deltas;
+    }
+
+    public void delete(List<Long> segmentIds) throws IOException {
+        for (Long id : segmentIds) {
+            Files.deleteIfExists(path(id));
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (current != null) {
+            current.channel.force(false);
+            current.channel.close();
+        }
+    }
+
+    private Segment open(long id) throws IOException {
+        List<OpenOption> options = new ArrayList<>(List.of(
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND));
+        if (syncWrites) {
+            options.add(StandardOpenOption.DSYNC);
+        }
+        return new Segment(id, FileChannel.open(path(id), options.toArray(new OpenOption[0])));
+    }
+
+    private Path path(long id) {
+        return directory.resolve(String.format("%s%019d%s", PREFIX, id, SUFFIX));
+    }
+
+    private static int checksum(long productId, int quantity) {
+        long mixed = (productId ^ ((long) quantity << 32)) * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32));
+    }
+
+    private static final class Segment {
+        private final long id;
+        private final FileChannel channel;
+        private final LongAdder writers = new LongAdder();
+
+        private Segment(long id, FileChannel channel) {
+            this.id = id;
+            this.channel = channel;
+        }
+    }
+}
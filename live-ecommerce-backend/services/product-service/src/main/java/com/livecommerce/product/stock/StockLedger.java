@@ -0,0 +1,391 @@
+package com.livecommerce.product.stock;
+
+import com.livecommerce.product.domain.Product;
+import com.livecommerce.product.domain.StockLedgerCheckpoint;
+import com.livecommerce.product.events.ProductEventOutbox;
+import com.livecommerce.product.repository.ProductRepository;
+import com.livecommerce.product.repository.StockLedgerCheckpointRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * In-memory stock for live products.
+ * Decrements hit a {@link StripedStockCounter} and the {@link StockJournal}, never MySQL;
+ * the accumulated decrements are written back to the products table in periodic batches.
+ * That stock, the hold wheel and the product cache all live in this JVM, so product-service must
+ * run as a single instance: a second one would sell the same units again. {@link InstanceLock}
+ * refuses to start a second one.
+ */
+@Slf4j
+@Component
+public class StockLedger {
+
+    // Guarded: a row with less stock than the ledger took means the two have drifted apart
+    private static final String APPLY_SQL = "UPDATE products SET stock = stock - ? WHERE id = ? AND stock >= ?";
+    private static final String STOCK_SQL = "SELECT stock FROM products WHERE id = ?";
+    private static final String ZERO_SQL = "UPDATE products SET stock = 0 WHERE id = ?";
+    // How long a buyer waits for a seller's stock override to commit before giving up
+    private static final long OVERRIDE_WAIT_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final ProductRepository productRepository;
+    private final StockLedgerCheckpointRepository checkpointRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ProductEventOutbox productEventOutbox;
+    private final TransactionTemplate transactionTemplate;
+    private final StockJournal journal;
+    private final int stripes;
+
+    private final Map<Long, Entry> live = new ConcurrentHashMap<>();
+    private volatile boolean started;
+    private volatile boolean dirty;
+
+    public StockLedger(ProductRepository productRepository,
+                       StockLedgerCheckpointRepository checkpointRepository,
+                       JdbcTemplate jdbcTemplate,
+                       ProductEventOutbox productEventOutbox,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${product.stock-ledger.journal-dir:data/stock-ledger}") String journalDir,
+                       @Value("${product.stock-ledger.sync-writes:false}") boolean syncWrites,
+                       @Value("${product.stock-ledger.stripes:0}") int stripes) throws IOException {
+        this.productRepository = productRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.productEventOutbox = productEventOutbox;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // The write-back must commit on its own, never as part of a caller's transaction
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.journal = new StockJournal(Paths.get(journalDir), syncWrites);
+        this.stripes = stripes > 0 ? stripes : Runtime.getRuntime().availableProcessors();
+    }
+
+    // Replays whatever the last run left in the journal, then loads the live products
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() throws IOException {
+        long checkpoint = checkpointRepository.findById(StockLedgerCheckpoint.LEDGER)
+                .map(StockLedgerCheckpoint::getLastSegment)
+                .orElse(0L);
+
+        List<Long> segments = journal.segments();
+        journal.delete(segments.stream().filter(id -> id <= checkpoint).toList());
+        List<Long> pending = segments.stream().filter(id -> id > checkpoint).toList();
+        if (!pending.isEmpty()) {
+            log.info("Replaying {} stock journal segment(s)", pending.size());
+            apply(pending);
+        }
+
+        long last = segments.isEmpty() ? checkpoint : Math.max(checkpoint, segments.get(segments.size() - 1));
+        journal.start(last + 1);
+        productRepository.findByLiveTrue().forEach(this::track);
+        started = true;
+    }
+
+    public enum Result { TAKEN, INSUFFICIENT, UNTRACKED }
+
+    /**
+     * Takes stock for a tracked product.
+     * Returns false when the product is not live, the caller then falls back to the database.
+     */
+    public boolean reduce(Long productId, int quantity) {
+        Result result = take(productId, quantity);
+        if (result == Result.INSUFFICIENT) {
+            Entry entry = live.get(productId);
+            throw new RuntimeException("Insufficient stock for product " + (entry != null ? entry.name : productId));
+        }
+        return result == Result.TAKEN;
+    }
+
+    public Result take(Long productId, int quantity) {
+        Entry entry = started ? live.get(productId) : null;
+        if (entry == null) {
+            return Result.UNTRACKED;
+        }
+        enter(entry);
+        try {
+            // Untracked while we waited for an override
+            if (live.get(productId) != entry) {
+                return Result.UNTRACKED;
+            }
+            if (!entry.counter.tryDecrement(quantity)) {
+                return Result.INSUFFICIENT;
+            }
+            try {
+                journal.append(productId, quantity);
+            } catch (IOException e) {
+                entry.counter.increment(quantity);
+                throw new RuntimeException("Stock journal write failed", e);
+            }
+            markDirty();
+            return Result.TAKEN;
+        } finally {
+            entry.takers.decrement();
+        }
+    }
+
+    // Gives back stock taken earlier, journaled as a negative decrement
+    public void release(Long productId, int quantity) {
+        Entry entry = live.get(productId);
+        if (entry != null) {
+            enter(entry);
+        }
+        try {
+            try {
+                journal.append(productId, -quantity);
+            } catch (IOException e) {
+                throw new RuntimeException("Stock journal write failed", e);
+            }
+            if (entry != null && live.get(productId) == entry) {
+                entry.counter.increment(quantity);
+            }
+            markDirty();
+        } finally {
+            if (entry != null) {
+                entry.takers.decrement();
+            }
+        }
+    }
+
+    // Counts stock the caller already put back on the products row (in a transaction that has committed).
+    // Not journaled: the row has it, and after a restart the counter is loaded from the row anyway
+    public void restocked(Long productId, int quantity) {
+        Entry entry = live.get(productId);
+        if (entry == null) {
+            return;
+        }
+        enter(entry);
+        try {
+            if (live.get(productId) == entry) {
+                entry.counter.increment(quantity);
+            }
+        } finally {
+            entry.takers.decrement();
+        }
+    }
+
+    /**
+     * Seller override of a product's stock.
+     * Takes on the product are held from before the write-back of its pending decrements until the
+     * surrounding transaction completes; the counter only takes the saved stock once that commits.
+     */
+    public Product override(Long productId, Supplier<Product> update) {
+        Entry entry = live.get(productId);
+        if (entry != null) {
+            entry.overrides.lock();
+            entry.frozen = true;
+            while (entry.takers.sum() != 0) {
+                Thread.onSpinWait();
+            }
+        }
+        boolean handedOff = false;
+        try {
+            writeBack();
+            Product saved = update.get();
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        try {
+                            if (status == STATUS_COMMITTED) {
+                                track(saved);
+                            }
+                        } finally {
+                            thaw(entry);
+                        }
+                    }
+                });
+                handedOff = true;
+            } else {
+                track(saved);
+            }
+            return saved;
+        } catch (IOException e) {
+            throw new RuntimeException("Stock ledger write-back failed", e);
+        } finally {
+            if (!handedOff) {
+                thaw(entry);
+            }
+        }
+    }
+
+    public void track(Product product) {
+        if (!product.isLive()) {
+            untrack(product.getId());
+            return;
+        }
+        long stock = product.getStock() != null ? product.getStock() : 0;
+        live.compute(product.getId(), (id, entry) -> {
+            if (entry == null) {
+                return new Entry(product.getName(), new StripedStockCounter(stripes, stock));
+            }
+            entry.counter.reset(stock);
+            entry.name = product.getName();
+            return entry;
+        });
+    }
+
+    public void untrack(Long productId) {
+        if (live.remove(productId) != null) {
+            flush();
+        }
+    }
+
+    public boolean isStarted() {
+        return started;
+    }
+
+    public boolean isTracked(Long productId) {
+        return started && live.containsKey(productId);
+    }
+
+    public Long available(Long productId) {
+        Entry entry = live.get(productId);
+        return entry != null ? entry.counter.available() : null;
+    }
+
+    @Scheduled(fixedDelayString = "${product.stock-ledger.flush-interval-ms:500}")
+    public void flush() {
+        try {
+            writeBack();
+        } catch (Exception e) {
+            // Sealed segments stay on disk and are retried on the next run
+            log.error("Stock ledger flush failed", e);
+        }
+    }
+
+    private synchronized void writeBack() throws IOException {
+        if (!started) {
+            return;
+        }
+        if (dirty) {
+            dirty = false;
+            journal.rotate();
+        }
+        long current = journal.currentSegment();
+        List<Long> sealed = journal.segments().stream().filter(id -> id < current).toList();
+        apply(sealed);
+    }
+
+    @PreDestroy
+    public synchronized void stop() throws IOException {
+        if (started) {
+            dirty = true;
+            flush();
+            started = false;
+            journal.close();
+        }
+    }
+
+    // Waits out a running override of the product; the caller decrements takers when done
+    private static void enter(Entry entry) {
+        long deadline = System.nanoTime() + OVERRIDE_WAIT_NANOS;
+        while (true) {
+            entry.takers.increment();
+            if (!entry.frozen) {
+                return;
+            }
+            entry.takers.decrement();
+            if (System.nanoTime() > deadline) {
+                throw new RuntimeException("Stock of " + entry.name + " is being updated, please retry");
+            }
+            LockSupport.parkNanos(100_000);
+        }
+    }
+
+    private static void thaw(Entry entry) {
+        if (entry != null) {
+            entry.frozen = false;
+            entry.overrides.unlock();
+        }
+    }
+
+    private void markDirty() {
+        if (!dirty) {
+            dirty = true;
+        }
+    }
+
+    private void apply(List<Long> segments) throws IOException {
+        if (segments.isEmpty()) {
+            return;
+        }
+        Map<Long, Long> deltas = journal.read(segments);
+        long lastSegment = segments.get(segments.size() - 1);
+
+        // Stock update, change events and checkpoint commit together, so a segment is never applied twice
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Map.Entry<Long, Long>> applied = List.copyOf(deltas.entrySet());
+            List<Object[]> rows = applied.stream()
+                    .map(delta -> new Object[]{delta.getValue(), delta.getKey(), delta.getValue()})
+                    .toList();
+            if (!rows.isEmpty()) {
+                int[] counts = jdbcTemplate.batchUpdate(APPLY_SQL, rows);
+                for (int i = 0; i < counts.length; i++) {
+                    if (counts[i] == 0) {
+                        drifted(applied.get(i).getKey(), applied.get(i).getValue());
+                    }
+                }
+            }
+            // One event per product per write-back, however many orders took from it
+            Map<Long, Integer> changed = new HashMap<>();
+            deltas.forEach((productId, delta) -> {
+                if (delta != 0) {
+                    Long stock = available(productId);
+                    changed.put(productId, stock != null ? stock.intValue() : null);
+                }
+            });
+            if (!changed.isEmpty()) {
+                productEventOutbox.recordStockChanges(changed);
+            }
+            checkpointRepository.save(new StockLedgerCheckpoint(StockLedgerCheckpoint.LEDGER, lastSegment));
+        });
+        journal.delete(segments);
+    }
+
+    // The guarded write-back matched no row: the product is gone, or the database has less stock than the ledger sold
+    private void drifted(Long productId, long taken) {
+        List<Integer> stock = jdbcTemplate.queryForList(STOCK_SQL, Integer.class, productId);
+        if (stock.isEmpty()) {
+            log.debug("Product {} was deleted before {} unit(s) were written back", productId, taken);
+            return;
+        }
+        log.error("Stock ledger drift: product {} has {} in the database but the ledger took {}; setting it to 0",
+                productId, stock.get(0), taken);
+        jdbcTemplate.update(ZERO_SQL, productId);
+    }
+
+    private static final class Entry {
+        private volatile String name;
+        private final StripedStockCounter counter;
+        // Same idea as the journal's segment writers: takes count themselves in, an override waits them out
+        private final LongAdder takers = new LongAdder();
+        private final ReentrantLock overrides = new ReentrantLock();
+        private volatile boolean frozen;
+
+        private Entry(String name, StripedStockCounter counter) {
+            this.name = name;
+            this.counter = counter;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.livecommerce.product.stock;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Stock for a single SKU split across padded atomic stripes.
+ * Each buyer thread decrements its "home" stripe with a CAS and only falls back to
+ * the other stripes when its own one runs dry, so a hot SKU never funnels every
+ * request through one memory location and can never go below zero.
+ * Quantities no single stripe can cover are collected under a lock, so two such buyers
+ * never each hold part of the stock and both get refused.
+ */
+public class StripedStockCounter {
+
+    // 16 longs = 128 bytes between stripes, keeps each stripe on its own cache line pair
+    private static final int PAD = 16;
+
+    private final int stripes;
+    private final int mask;
+    private final AtomicLongArray cells;
+
+    public StripedStockCounter(int stripes, long initialStock) {
+        int size = 1;
+        while (size < stripes) {
+            size <<= 1;
+        }
+        this.stripes = size;
+        this.mask = size - 1;
+        this.cells = new AtomicLongArray(size * PAD);
+        reset(initialStock);
+    }
+
+    public boolean tryDecrement(long quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+        int home = homeStripe();
+
+        // Fast path: one stripe can cover the whole quantity
+        for (int i = 0; i < stripes; i++) {
+            if (takeFrom((home + i) & mask, quantity)) {
+                return true;
+            }
+        }
+        return tryDecrementSpanning(quantity, home);
+    }
+
+    // Slow path: quantity spans several stripes, collect it piecewise.
+    // Fast-path buyers only ever take whole quantities, so the only partial holder is the one in here
+    private synchronized boolean tryDecrementSpanning(long quantity, int home) {
+        long[] taken = new long[stripes];
+        long remaining = quantity;
+        for (int i = 0; i < stripes && remaining > 0; i++) {
+            int stripe = (home + i) & mask;
+            long got = takeUpTo(stripe, remaining);
+            taken[stripe] = got;
+            remaining -= got;
+        }
+        if (remaining == 0) {
+            return true;
+        }
+
+        // Not enough stock overall, hand back what we collected
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            if (taken[stripe] > 0) {
+                cells.getAndAdd(stripe * PAD, taken[stripe]);
+            }
+        }
+        return false;
+    }
+
+    public void increment(long quantity) {
+        cells.getAndAdd(homeStripe() * PAD, quantity);
+    }
+
+    public long available() {
+        long sum = 0;
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            sum += cells.get(stripe * PAD);
+        }
+        return sum;
+    }
+
+    // Not atomic against concurrent decrements; StockLedger holds takes on the product while it resets
+    public void reset(long stock) {
+        long value = Math.max(0, stock);
+        long share = value / stripes;
+        long remainder = value % stripes;
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            cells.set(stripe * PAD, share + (stripe < remainder ? 1 : 0));
+        }
+    }
+
+    public int stripes() {
+        return stripes;
+    }
+
+    private boolean takeFrom(int stripe, long quantity) {
+        int index = stripe * PAD;
+        long current;
+        while ((current = cells.get(index)) >= quantity) {
+            if (cells.compareAndSet(index, current, current - quantity)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long takeUpTo(int stripe, long quantity) {
+        int index = stripe * PAD;
+        long current;
+        while ((current = cells.get(index)) > 0) {
+            long got = Math.min(current, quantity);
+            if (cells.compareAndSet(index, current, current - got)) {
+                return got;
+            }
+        }
+        return 0;
+    }
+
+    private int homeStripe() {
+        long id = Thread.currentThread().threadId();
+        return (int) ((id * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+}
@@ -0,0 +1,259 @@
+package com.livecommerce.product.storage;
+
+import com.livecommerce.product.cache.ProductCache;
+import com.livecommerce.product.domain.Product;
+import com.livecommerce.product.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Renders a square thumbnail and width-limited copies of every uploaded product image
+ * on a small bounded worker pool, after the upload request has returned.
+ * Failed jobs are retried with backoff; jobs that never made it onto the queue are picked up
+ * again by the sweep, which looks for products whose imageVariants are still unset.
+ * JPEG copies are always written, WebP copies only when an ImageIO WebP writer is installed.
+ */
+@Slf4j
+@Component
+public class ImageDerivativePipeline {
+
+    public static final String THUMBNAIL = "thumb";
+
+    private final ImageStorage imageStorage;
+    private final ProductRepository productRepository;
+    private final ProductCache productCache;
+    private final int[] widths;
+    private final int thumbnailSize;
+    private final int maxAttempts;
+    private final boolean webpWritable;
+
+    private final ThreadPoolExecutor workers;
+    private final ScheduledExecutorService retries;
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    public ImageDerivativePipeline(ImageStorage imageStorage,
+                                   ProductRepository productRepository,
+                                   ProductCache productCache,
+                                   @Value("${product.images.widths:320,640,1280}") int[] widths,
+                                   @Value("${product.images.thumbnail-size:160}") int thumbnailSize,
+                                   @Value("${product.images.workers:2}") int workers,
+                                   @Value("${product.images.queue-capacity:500}") int queueCapacity,
+                                   @Value("${product.images.max-attempts:3}") int maxAttempts) {
+        this.imageStorage = imageStorage;
+        this.productRepository = productRepository;
+        this.productCache = productCache;
+        this.widths = Arrays.stream(widths).sorted().toArray();
+        this.thumbnailSize = thumbnailSize;
+        this.maxAttempts = maxAttempts;
+
+        // Plugins on the application class path (WebP reader) are not seen by ImageIO until rescanned
+        ImageIO.scanForPlugins();
+        this.webpWritable = ImageIO.getImageWritersByFormatName("webp").hasNext();
+
+        AtomicInteger threads = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-derivatives-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.retries = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "image-derivatives-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public int[] widths() {
+        return widths;
+    }
+
+    public void submit(Long productId, String imageUrl) {
+        if (imageUrl == null || !inFlight.add(productId)) {
+            return;
+        }
+        enqueue(new Job(productId, imageUrl, 1));
+    }
+
+    @Scheduled(fixedDelayString = "${product.images.sweep-interval-ms:60000}",
+            initialDelayString = "${product.images.sweep-interval-ms:60000}")
+    public void sweep() {
+        for (Product product : productRepository.findByImageUrlIsNotNullAndImageVariantsIsNull(Limit.of(100))) {
+            submit(product.getId(), product.getImageUrl());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        retries.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    // Variant file sits next to the original: /uploads/ab/cd/<hash>.webp -> /uploads/ab/cd/<hash>_w320.jpg
+    public static String variantPath(String original, String variant) {
+        int slash = original.lastIndexOf('/');
+        int dot = original.lastIndexOf('.');
+        String base = dot > slash ? original.substring(0, dot) : original;
+        return base + "_" + variant;
+    }
+
+    private void enqueue(Job job) {
+        try {
+            workers.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            // Queue full, the sweep will come back for it
+            inFlight.remove(job.productId());
+            log.warn("Image derivative queue full, deferring product {}", job.productId());
+        }
+    }
+
+    private void run(Job job) {
+        try {
+            List<String> variants = render(job.imageUrl());
+            record(job, String.join(",", variants));
+        } catch (Exception e) {
+            if (job.attempt() < maxAttempts) {
+                long delay = 1_000L << job.attempt();
+                log.warn("Image derivatives for product {} failed (attempt {}), retrying in {} ms",
+                        job.productId(), job.attempt(), delay, e);
+                retries.schedule(() -> enqueue(job.next()), delay, TimeUnit.MILLISECONDS);
+                return;
+            }
+            log.error("Giving up on image derivatives for product {}", job.productId(), e);
+            record(job, "");
+        }
+    }
+
+    private void record(Job job, String variants) {
+        try {
+            if (productRepository.updateImageVariants(job.productId(), job.imageUrl(), variants) > 0) {
+                productCache.invalidate(job.productId());
+            }
+        } finally {
+            inFlight.remove(job.productId());
+        }
+    }
+
+    private List<String> render(String imageUrl) throws IOException {
+        Path source = imageStorage.resolve(imageUrl);
+        BufferedImage image = ImageIO.read(source.toFile());
+        if (image == null) {
+            throw new IOException("No ImageIO reader for " + source.getFileName());
+        }
+
+        List<String> variants = new ArrayList<>();
+        write(thumbnail(image), source, THUMBNAIL, variants);
+        for (int width : widths) {
+            if (width < image.getWidth()) {
+                write(scale(image, width), source, "w" + width, variants);
+            }
+        }
+        return variants;
+    }
+
+    private void write(BufferedImage image, Path source, String variant, List<String> variants) throws IOException {
+        writeFormat(image, source, variant + ".jpg", "jpeg");
+        variants.add(variant + ".jpg");
+        if (webpWritable) {
+            writeFormat(image, source, variant + ".webp", "webp");
+            variants.add(variant + ".webp");
+        }
+    }
+
+    private void writeFormat(BufferedImage image, Path source, String variant, String format) throws IOException {
+        Path target = source.resolveSibling(variantPath(source.getFileName().toString(), variant));
+        // Same source hash, same variant: another product already rendered it
+        if (Files.exists(target)) {
+            return;
+        }
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(format);
+        if (!writers.hasNext()) {
+            throw new IOException("No ImageIO writer for " + format);
+        }
+        ImageWriter writer = writers.next();
+        Path temp = target.resolveSibling(UUID.randomUUID() + ".part");
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(temp.toFile())) {
+            writer.setOutput(out);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (param.canWriteCompressed()) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                if (param.getCompressionType() == null && param.getCompressionTypes().length > 0) {
+                    param.setCompressionType(param.getCompressionTypes()[0]);
+                }
+                param.setCompressionQuality(0.82f);
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    // Center crop to a square, then scale down
+    private BufferedImage thumbnail(BufferedImage image) {
+        int side = Math.min(image.getWidth(), image.getHeight());
+        BufferedImage square = image.getSubimage((image.getWidth() - side) / 2, (image.getHeight() - side) / 2, side, side);
+        return draw(square, thumbnailSize, thumbnailSize);
+    }
+
+    private static BufferedImage scale(BufferedImage image, int width) {
+        int height = Math.max(1, Math.round(image.getHeight() * (width / (float) image.getWidth())));
+        return draw(image, width, height);
+    }
+
+    // Always RGB on white: JPEG has no alpha channel
+    private static BufferedImage draw(BufferedImage image, int width, int height) {
+        BufferedImage result = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = result.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return result;
+    }
+
+    private record Job(Long productId, String imageUrl, int attempt) {
+        Job next() {
+            return new Job(productId, imageUrl, attempt + 1);
+        }
+    }
+}
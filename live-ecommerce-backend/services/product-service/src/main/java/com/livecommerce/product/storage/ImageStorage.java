@@ -0,0 +1,115 @@
+package com.livecommerce.product.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Content-addressed store for product images.
+ * The upload is copied to disk through a fixed direct buffer while it is hashed, then moved
+ * to uploads/ab/cd/abcd....ext named by its SHA-256. Uploading the same image twice keeps one file.
+ */
+@Component
+public class ImageStorage {
+
+    public static final String URL_PREFIX = "/uploads/";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path root;
+    private final Path staging;
+
+    public ImageStorage(@Value("${product.storage.upload-dir:uploads}") String uploadDir) throws IOException {
+        this.root = Paths.get(uploadDir).toAbsolutePath().normalize();
+        // Same file system as the final location, so the last step is an atomic rename
+        this.staging = root.resolve(".staging");
+        Files.createDirectories(staging);
+    }
+
+    // Returns the public URL of the stored image, e.g. /uploads/3f/a2/3fa2....webp
+    public String store(MultipartFile file) throws IOException {
+        MessageDigest digest = sha256();
+        Path temp = staging.resolve(UUID.randomUUID() + ".part");
+        try {
+            try (InputStream input = file.getInputStream();
+                 ReadableByteChannel in = Channels.newChannel(input);
+                 FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+                while (in.read(buffer) != -1) {
+                    buffer.flip();
+                    digest.update(buffer.duplicate());
+                    while (buffer.hasRemaining()) {
+                        out.write(buffer);
+                    }
+                    buffer.clear();
+                }
+            }
+
+            String hash = HexFormat.of().formatHex(digest.digest());
+            String relative = hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash + extension(file);
+            Path target = root.resolve(relative);
+            if (Files.notExists(target)) {
+                Files.createDirectories(target.getParent());
+                try {
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException e) {
+                    // Same image uploaded concurrently, the other copy won
+                }
+            }
+            return URL_PREFIX + relative;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public Path root() {
+        return root;
+    }
+
+    // File behind an /uploads/... URL, refusing anything that points outside the upload directory
+    public Path resolve(String imageUrl) {
+        if (imageUrl == null || !imageUrl.startsWith(URL_PREFIX)) {
+            throw new IllegalArgumentException("Not a stored image: " + imageUrl);
+        }
+        Path path = root.resolve(imageUrl.substring(URL_PREFIX.length())).normalize();
+        if (!path.startsWith(root)) {
+            throw new IllegalArgumentException("Not a stored image: " + imageUrl);
+        }
+        return path;
+    }
+
+    private static String extension(MultipartFile file) {
+        String name = file.getOriginalFilename();
+        if (name == null) {
+            return "";
+        }
+        int dot = name.lastIndexOf('.');
+        String ext = dot >= 0 ? name.substring(dot + 1).toLowerCase(Locale.ROOT) : "";
+        return ext.matches("[a-z0-9]{1,5}") ? "." + ext : "";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,368 @@
+package com.livecommerce.product.storage;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Serves files under /uploads.
+ * Bodies go out through Tomcat's sendfile when the connector supports it, otherwise through
+ * FileChannel.transferTo, never through a heap buffer. Supports single byte ranges, ETag and
+ * Last-Modified validation, .br/.gz siblings for clients that accept them, and the ?w= / ?variant=thumb
+ * image variants. Content-addressed names never change, so they are sent as immutable.
+ * File metadata is cached briefly so a hot image costs no stat() calls.
+ */
+@Component
+public class UploadFileServer {
+
+    private static final Pattern CONTENT_ADDRESSED = Pattern.compile("[0-9a-f]{64}(_[a-z0-9]+)?\\.[a-z0-9]+");
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+    private static final String REVALIDATE = "no-cache";
+
+    // Request attributes understood by Tomcat's NIO connector
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    private static final long SENDFILE_THRESHOLD = 48 * 1024;
+
+    private static final String[][] ENCODINGS = {{"br", ".br"}, {"gzip", ".gz"}};
+
+    private final ImageStorage imageStorage;
+    private final int[] widths;
+    private final Cache<Path, FileInfo> metadata;
+
+    private record FileInfo(boolean exists, String realPath, long length, long lastModified,
+                            String etag, String contentType, boolean immutable) {
+    }
+
+    public UploadFileServer(ImageStorage imageStorage,
+                            @Value("${product.images.widths:320,640,1280}") int[] widths,
+                            @Value("${product.storage.metadata-ttl-seconds:10}") long metadataTtlSeconds) {
+        this.imageStorage = imageStorage;
+        this.widths = Arrays.stream(widths).sorted().toArray();
+        this.metadata = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(Duration.ofSeconds(metadataTtlSeconds))
+                .build();
+    }
+
+    public void serve(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String url = UrlPathHelper.defaultInstance.getPathWithinApplication(request);
+        Path original;
+        try {
+            original = imageStorage.resolve(url);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        // Staging files and other dot entries are never public
+        if (url.contains("/.")) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        boolean variantRequested = request.getParameter("w") != null || request.getParameter("variant") != null;
+        Path file = null;
+        FileInfo info = null;
+        for (Path candidate : candidates(request, original)) {
+            FileInfo candidateInfo = info(candidate);
+            if (candidateInfo.exists()) {
+                file = candidate;
+                info = candidateInfo;
+                break;
+            }
+        }
+        if (info == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        // Precompressed sibling, whole-body responses only
+        String encoding = null;
+        if (request.getHeader(HttpHeaders.RANGE) == null) {
+            for (String[] candidate : ENCODINGS) {
+                if (accepts(request.getHeader(HttpHeaders.ACCEPT_ENCODING), candidate[0], "*")) {
+                    Path encodedFile = file.resolveSibling(file.getFileName() + candidate[1]);
+                    FileInfo encodedInfo = info(encodedFile);
+                    if (encodedInfo.exists()) {
+                        encoding = candidate[0];
+                        file = encodedFile;
+                        info = new FileInfo(true, encodedInfo.realPath(), encodedInfo.length(), encodedInfo.lastModified(),
+                                encodedInfo.etag(), info.contentType(), info.immutable());
+                        break;
+                    }
+                }
+            }
+        }
+
+        response.setHeader(HttpHeaders.ETAG, info.etag());
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, info.lastModified());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, info.immutable() ? IMMUTABLE : REVALIDATE);
+        response.setHeader(HttpHeaders.VARY, variantRequested ? "Accept, Accept-Encoding" : HttpHeaders.ACCEPT_ENCODING);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if (notModified(request, info)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long start = 0;
+        long end = info.length() - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null && encoding == null && rangeApplies(request, info)) {
+            long[] bounds = parseRange(range, info.length());
+            if (bounds != null && bounds.length == 0) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + info.length());
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (bounds != null) {
+                start = bounds[0];
+                end = bounds[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + info.length());
+            }
+        }
+
+        response.setContentType(info.contentType());
+        if (encoding != null) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, encoding);
+        }
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod()) || count <= 0) {
+            return;
+        }
+        transfer(request, response, file, info, start, count);
+    }
+
+    private void transfer(HttpServletRequest request, HttpServletResponse response, Path file, FileInfo info,
+                          long start, long count) throws IOException {
+        if (count >= SENDFILE_THRESHOLD && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            // Tomcat sends the file from the kernel once we return
+            request.setAttribute(SENDFILE_FILENAME, info.realPath());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + count);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long endExclusive = start + count;
+            while (position < endExclusive) {
+                long sent = channel.transferTo(position, endExclusive - position, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+            }
+        }
+    }
+
+    private List<Path> candidates(HttpServletRequest request, Path original) {
+        List<String> variants = new ArrayList<>();
+        String width = request.getParameter("w");
+        if (ImageDerivativePipeline.THUMBNAIL.equals(request.getParameter("variant"))) {
+            variants.add(ImageDerivativePipeline.THUMBNAIL);
+        } else if (width != null && width.matches("\\d{1,5}")) {
+            int requested = Integer.parseInt(width);
+            // Best fit first, then the next larger ones in case a size was skipped for a small original
+            for (int w : widths) {
+                if (w >= requested) {
+                    variants.add("w" + w);
+                }
+            }
+        }
+
+        // Only an explicit image/webp counts: */* comes from clients that may not decode it
+        boolean webp = accepts(request.getHeader(HttpHeaders.ACCEPT), "image/webp", null);
+        String name = original.getFileName().toString();
+        List<Path> paths = new ArrayList<>();
+        for (String variant : variants) {
+            if (webp) {
+                paths.add(original.resolveSibling(ImageDerivativePipeline.variantPath(name, variant + ".webp")));
+            }
+            paths.add(original.resolveSibling(ImageDerivativePipeline.variantPath(name, variant + ".jpg")));
+        }
+        paths.add(original);
+        return paths;
+    }
+
+    private FileInfo info(Path file) {
+        return metadata.get(file, path -> {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                if (!attributes.isRegularFile()) {
+                    return missing();
+                }
+                String name = path.getFileName().toString();
+                boolean immutable = CONTENT_ADDRESSED.matcher(stripEncoding(name)).matches();
+                long lastModified = attributes.lastModifiedTime().toMillis();
+                String etag = immutable
+                        ? "\"" + name + "\""
+                        : "\"" + Long.toHexString(attributes.size()) + "-" + Long.toHexString(lastModified) + "\"";
+                String contentType = MediaTypeFactory.getMediaType(stripEncoding(name))
+                        .orElse(MediaType.APPLICATION_OCTET_STREAM)
+                        .toString();
+                return new FileInfo(true, path.toRealPath().toString(), attributes.size(), lastModified,
+                        etag, contentType, immutable);
+            } catch (IOException e) {
+                return missing();
+            }
+        });
+    }
+
+    private static FileInfo missing() {
+        return new FileInfo(false, null, 0, 0, null, null, false);
+    }
+
+    private static String stripEncoding(String name) {
+        for (String[] encoding : ENCODINGS) {
+            if (name.endsWith(encoding[1])) {
+                return name.substring(0, name.length() - encoding[1].length());
+            }
+        }
+        return name;
+    }
+
+    private static boolean notModified(HttpServletRequest request, FileInfo info) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            return etagMatches(ifNoneMatch, info.etag());
+        }
+        long ifModifiedSince = dateHeader(request, HttpHeaders.IF_MODIFIED_SINCE);
+        return ifModifiedSince >= 0 && info.lastModified() / 1000 <= ifModifiedSince / 1000;
+    }
+
+    // If-Range: serve the range only when the client still has the same representation
+    private static boolean rangeApplies(HttpServletRequest request, FileInfo info) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"")) {
+            return ifRange.equals(info.etag());
+        }
+        long date = dateHeader(request, HttpHeaders.IF_RANGE);
+        return date >= 0 && info.lastModified() / 1000 == date / 1000;
+    }
+
+    private static boolean etagMatches(String header, String etag) {
+        for (String candidate : header.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*")) {
+                return true;
+            }
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Single range only: returns {start, end} inclusive, an empty array when unsatisfiable,
+     * or null when the header should be ignored (malformed or several ranges).
+     */
+    static long[] parseRange(String header, long length) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return null;
+        }
+        String spec = header.substring(6).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0) {
+                    return new long[0];
+                }
+                start = Math.max(0, length - suffix);
+                end = length - 1;
+            } else {
+                start = Long.parseLong(first);
+                if (start >= length) {
+                    return new long[0];
+                }
+                long requestedEnd = last.isEmpty() ? length - 1 : Long.parseLong(last);
+                if (requestedEnd < start) {
+                    return null;
+                }
+                end = Math.min(requestedEnd, length - 1);
+            }
+            return start >= length ? new long[0] : new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static long dateHeader(HttpServletRequest request, String name) {
+        try {
+            return request.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    // Whether an Accept-style header lists value with a q above 0. The wildcard entry, if any, covers values
+    // the header does not name; a named value's own q wins over it, so "gzip;q=0, *" still refuses gzip
+    private static boolean accepts(String header, String value, String wildcard) {
+        if (header == null) {
+            return false;
+        }
+        float named = -1;
+        float any = -1;
+        for (String entry : header.split(",")) {
+            String[] params = entry.split(";");
+            String token = params[0].trim();
+            float q = 1;
+            for (int i = 1; i < params.length; i++) {
+                String param = params[i].trim();
+                if (param.regionMatches(true, 0, "q=", 0, 2)) {
+                    try {
+                        q = Float.parseFloat(param.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        q = 0;
+                    }
+                }
+            }
+            if (token.equalsIgnoreCase(value)) {
+                named = q;
+            } else if (token.equals(wildcard)) {
+                any = q;
+            }
+        }
+        return (named >= 0 ? named : any) > 0;
+    }
+}
@@ -0,0 +1,117 @@
+package com.livecommerce.product_service;
+
+import com.livecommerce.product.stock.InstanceLock;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Two product-service processes against one MySQL, whose named locks belong to a session
+class InstanceLockTests {
+
+	private final FakeMySql mysql = new FakeMySql();
+
+	@Test
+	void secondInstanceRefusesToStart() {
+		InstanceLock first = new InstanceLock(mysql.dataSource(), "product-service", 0);
+
+		assertThrows(IllegalStateException.class, () -> new InstanceLock(mysql.dataSource(), "product-service", 0));
+
+		first.release();
+		assertDoesNotThrow(() -> new InstanceLock(mysql.dataSource(), "product-service", 0));
+	}
+
+	@Test
+	void lockIsTakenAgainWhenItsConnectionDies() {
+		InstanceLock lock = new InstanceLock(mysql.dataSource(), "product-service", 0);
+		int session = mysql.holder("product-service");
+
+		mysql.kill(session);
+		lock.check();
+
+		assertEquals(session + 1, mysql.holder("product-service"));
+		assertThrows(IllegalStateException.class, () -> new InstanceLock(mysql.dataSource(), "product-service", 0));
+	}
+
+	private static final class FakeMySql {
+
+		private final AtomicInteger sessions = new AtomicInteger();
+		private final Map<String, Integer> locks = new HashMap<>();
+
+		DataSource dataSource() {
+			DataSource dataSource = mock(DataSource.class);
+			try {
+				when(dataSource.getConnection()).thenAnswer(call -> connect(sessions.incrementAndGet()));
+			} catch (SQLException e) {
+				throw new IllegalStateException(e);
+			}
+			return dataSource;
+		}
+
+		synchronized int holder(String name) {
+			return locks.getOrDefault(name, 0);
+		}
+
+		synchronized void kill(int session) {
+			locks.values().removeIf(holder -> holder == session);
+		}
+
+		private Connection connect(int session) throws SQLException {
+			Connection connection = mock(Connection.class);
+			when(connection.prepareStatement(anyString())).thenAnswer(call -> statement(session, call.getArgument(0)));
+			doAnswer(call -> {
+				kill(session);
+				return null;
+			}).when(connection).close();
+			return connection;
+		}
+
+		private PreparedStatement statement(int session, String sql) throws SQLException {
+			PreparedStatement statement = mock(PreparedStatement.class);
+			String[] name = new String[1];
+			doAnswer(call -> name[0] = call.getArgument(1)).when(statement).setString(eq(1), anyString());
+			when(statement.executeQuery()).thenAnswer(call -> result(run(session, sql, name[0])));
+			when(statement.execute()).thenAnswer(call -> {
+				run(session, sql, name[0]);
+				return true;
+			});
+			return statement;
+		}
+
+		private synchronized int run(int session, String sql, String name) throws SQLException {
+			if (sql.contains("GET_LOCK")) {
+				Integer holder = locks.putIfAbsent(name, session);
+				return holder == null || holder == session ? 1 : 0;
+			}
+			if (sql.contains("IS_USED_LOCK")) {
+				return Integer.valueOf(session).equals(locks.get(name)) ? 1 : 0;
+			}
+			if (sql.contains("RELEASE_LOCK")) {
+				return locks.remove(name, session) ? 1 : 0;
+			}
+			throw new SQLException("Unexpected statement " + sql);
+		}
+
+		private static ResultSet result(int value) throws SQLException {
+			ResultSet rs = mock(ResultSet.class);
+			when(rs.next()).thenReturn(true, false);
+			when(rs.getInt(1)).thenReturn(value);
+			return rs;
+		}
+	}
+}
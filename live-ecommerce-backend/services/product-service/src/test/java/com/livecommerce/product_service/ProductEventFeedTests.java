@@ -0,0 +1,139 @@
+package com.livecommerce.product_service;
+
+import com.livecommerce.product.domain.ProductEvent;
+import com.livecommerce.product.domain.ProductEventType;
+import com.livecommerce.product.dto.ProductChangeBatch;
+import com.livecommerce.product.dto.ProductChangeEvent;
+import com.livecommerce.product.events.ProductEventFeed;
+import com.livecommerce.product.repository.ProductEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductEventFeedTests {
+
+	private final List<ProductEvent> table = new ArrayList<>();
+	private ProductEventRepository repository;
+
+	@BeforeEach
+	void setUp() {
+		repository = mock(ProductEventRepository.class);
+		when(repository.findByEventOffsetIsNullOrderByIdAsc(any())).thenAnswer(call -> {
+			Limit limit = call.getArgument(0);
+			return table.stream().filter(e -> e.getEventOffset() == null).limit(limit.max()).toList();
+		});
+		when(repository.findMaxOffset()).thenAnswer(call -> table.stream()
+				.filter(e -> e.getEventOffset() != null)
+				.mapToLong(ProductEvent::getEventOffset)
+				.max()
+				.orElse(0));
+		when(repository.findByEventOffsetGreaterThanOrderByEventOffsetAsc(anyLong(), any())).thenAnswer(call -> {
+			long after = call.getArgument(0);
+			Limit limit = call.getArgument(1);
+			return table.stream()
+					.filter(e -> e.getEventOffset() != null && e.getEventOffset() > after)
+					.sorted(Comparator.comparing(ProductEvent::getEventOffset))
+					.limit(limit.max())
+					.toList();
+		});
+	}
+
+	// The tail comes from the table, so a feed also serves offsets another relay run numbered
+	@Test
+	void feedServesEveryOffsetWhicheverRunNumberedIt() {
+		ProductEventFeed a = feed();
+		ProductEventFeed b = feed();
+
+		write(3);
+		a.relay();
+		write(3);
+		b.relay();
+		write(3);
+		a.relay();
+		b.relay();
+
+		assertEquals(LongStream.rangeClosed(1, 9).boxed().toList(), offsets(a.read(0, 100)));
+		assertEquals(LongStream.rangeClosed(1, 9).boxed().toList(), offsets(b.read(0, 100)));
+		assertEquals(List.of(4L, 5L, 6L, 7L, 8L, 9L), offsets(a.read(3, 100)));
+		assertEquals(List.of(7L, 8L, 9L), offsets(b.read(6, 100)));
+		assertEquals(9, a.lastOffset());
+		assertEquals(9, b.lastOffset());
+	}
+
+	@Test
+	void readResumesAfterTheLastOffsetInSmallBatches() {
+		ProductEventFeed feed = feed();
+		write(5);
+		feed.relay();
+
+		ProductChangeBatch first = feed.read(0, 2);
+		ProductChangeBatch second = feed.read(first.getNextOffset(), 2);
+		ProductChangeBatch rest = feed.read(second.getNextOffset(), 10);
+		ProductChangeBatch none = feed.read(rest.getNextOffset(), 10);
+
+		assertEquals(List.of(1L, 2L), offsets(first));
+		assertEquals(List.of(3L, 4L), offsets(second));
+		assertEquals(List.of(5L), offsets(rest));
+		assertEquals(List.of(), offsets(none));
+		assertEquals(5, none.getNextOffset());
+	}
+
+	@Test
+	void consumerBehindThePurgeIsToldToReset() {
+		ProductEventFeed feed = feed(2);
+		write(6);
+		feed.relay();
+		// Offsets 1-3 are past retention; the tail only holds 5 and 6
+		table.removeIf(e -> e.getEventOffset() <= 3);
+
+		ProductChangeBatch purged = feed.read(1, 10);
+		ProductChangeBatch intact = feed.read(3, 10);
+
+		assertTrue(purged.isReset());
+		assertEquals(List.of(), offsets(purged));
+		assertEquals(6, purged.getNextOffset());
+		assertFalse(intact.isReset());
+		assertEquals(List.of(4L, 5L, 6L), offsets(intact));
+	}
+
+	private ProductEventFeed feed() {
+		return feed(100);
+	}
+
+	private ProductEventFeed feed(int tailCapacity) {
+		ProductEventFeed feed = new ProductEventFeed(repository, mock(PlatformTransactionManager.class), 2, tailCapacity, 72);
+		feed.start();
+		return feed;
+	}
+
+	private void write(int count) {
+		for (int i = 0; i < count; i++) {
+			table.add(ProductEvent.builder()
+					.id((long) table.size() + 1)
+					.type(ProductEventType.UPDATED)
+					.productId(1L)
+					.stock(i)
+					.createdAt(LocalDateTime.now())
+					.build());
+		}
+	}
+
+	private static List<Long> offsets(ProductChangeBatch batch) {
+		return batch.getEvents().stream().map(ProductChangeEvent::getOffset).toList();
+	}
+}
@@ -0,0 +1,76 @@
+package com.livecommerce.product_service;
+
+import com.livecommerce.product.ProductServiceApplication;
+import com.livecommerce.product.domain.Product;
+import com.livecommerce.product.dto.ProductImportFormat;
+import com.livecommerce.product.dto.ProductImportResult;
+import com.livecommerce.product.repository.ProductRepository;
+import com.livecommerce.product.service.ProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Needs the product database: mvn test -Dtest=ProductImportBenchmarkTests -Dbenchmark=true
+@SpringBootTest(classes = ProductServiceApplication.class)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ProductImportBenchmarkTests {
+
+	private static final int ROWS = 5_000;
+	private static final String CATEGORY = "import-benchmark";
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@AfterEach
+	void cleanUp() {
+		productRepository.deleteAll(productRepository.findAll().stream()
+				.filter(product -> CATEGORY.equals(product.getCategory()))
+				.toList());
+	}
+
+	@Test
+	void rowsPerSecondAgainstOneByOne() throws Exception {
+		StringBuilder csv = new StringBuilder("name,description,price,category,stock,live\n");
+		for (int i = 0; i < ROWS; i++) {
+			csv.append("Item ").append(i).append(",\"Bulk, row ").append(i).append("\",9.99,")
+					.append(CATEGORY).append(",10,false\n");
+		}
+		csv.append("Broken,,not-a-price,").append(CATEGORY).append(",1,false\n");
+
+		long start = System.nanoTime();
+		ProductImportResult result = productService.importProducts(
+				new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)), ProductImportFormat.CSV);
+		long bulkNanos = System.nanoTime() - start;
+
+		assertEquals(ROWS + 1, result.getRows());
+		assertEquals(ROWS, result.getImported());
+		assertEquals(1, result.getFailed());
+		assertEquals(ROWS + 2, result.getErrors().get(0).getRow());
+
+		start = System.nanoTime();
+		for (int i = 0; i < ROWS; i++) {
+			productService.createProduct(Product.builder()
+					.name("Single " + i)
+					.description("One by one " + i)
+					.price(new BigDecimal("9.99"))
+					.category(CATEGORY)
+					.stock(10)
+					.build(), null);
+		}
+		long singleNanos = System.nanoTime() - start;
+
+		System.out.printf("rows=%d bulk-import=%,d rows/s one-by-one=%,d rows/s%n", ROWS,
+				ROWS * 1_000_000_000L / bulkNanos, ROWS * 1_000_000_000L / singleNanos);
+	}
+}
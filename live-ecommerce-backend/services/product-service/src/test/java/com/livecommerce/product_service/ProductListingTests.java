@@ -0,0 +1,64 @@
+package com.livecommerce.product_service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.livecommerce.product.api.ProductController;
+import com.livecommerce.product.dto.ProductSummary;
+import com.livecommerce.product.service.ProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductListingTests {
+
+	private final ProductService productService = mock(ProductService.class);
+	private final ProductController controller = new ProductController(productService, new ObjectMapper());
+
+	@BeforeEach
+	void bindRequest() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products");
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+	}
+
+	@AfterEach
+	void unbindRequest() {
+		RequestContextHolder.resetRequestAttributes();
+	}
+
+	@Test
+	void withoutCursorOrLimitTheWholeListComesBack() {
+		when(productService.getAllProducts(null, Integer.MAX_VALUE)).thenReturn(products(120));
+
+		ResponseEntity<List<ProductSummary>> response = controller.getProducts(null, null, null, null);
+
+		assertEquals(120, response.getBody().size());
+		assertNull(response.getHeaders().getFirst("X-Next-Cursor"));
+	}
+
+	@Test
+	void aLimitAsksForOnePageAndTheNextCursor() {
+		when(productService.getAllProducts(null, 50)).thenReturn(products(50));
+
+		ResponseEntity<List<ProductSummary>> response = controller.getProducts(null, null, null, 50);
+
+		assertEquals(50, response.getBody().size());
+		assertEquals("50", response.getHeaders().getFirst("X-Next-Cursor"));
+	}
+
+	private static List<ProductSummary> products(int count) {
+		return LongStream.rangeClosed(1, count)
+				.mapToObj(id -> ProductSummary.builder().id(id).name("p" + id).build())
+				.toList();
+	}
+}
@@ -0,0 +1,123 @@
+package com.livecommerce.product_service;
+
+import com.livecommerce.product.domain.Product;
+import com.livecommerce.product.repository.ProductStreamRepository;
+import com.livecommerce.product.search.ProductSearchIndex;
+import com.livecommerce.product.search.SearchCursor;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class ProductSearchIndexTests {
+
+	@Test
+	void tokensAreCaseAndPunctuationInsensitive() {
+		ProductSearchIndex index = index(product(1L, "Wireless-Headphones", "Audio", "Over-ear, 30h battery"));
+
+		assertEquals(List.of(1L), ids(index.search("WIRELESS", null, 10)));
+		assertEquals(List.of(1L), ids(index.search("  headphones!! ", null, 10)));
+		assertEquals(List.of(1L), ids(index.search("30h", null, 10)));
+		assertTrue(index.search(" -- ", null, 10).isEmpty());
+	}
+
+	@Test
+	void exactBeatsPrefixBeatsInfix() {
+		ProductSearchIndex index = index(
+				product(1L, "Phonebook", "Books", null),
+				product(2L, "Phone", "Mobiles", null),
+				product(3L, "Headphone", "Audio", null));
+
+		assertEquals(List.of(2L, 1L, 3L), ids(index.search("phone", null, 10)));
+	}
+
+	@Test
+	void nameOutweighsDescription() {
+		ProductSearchIndex index = index(
+				product(1L, "Stand", "Desk", "Fits every laptop"),
+				product(2L, "Laptop", "Computers", "Thin and light"));
+
+		assertEquals(List.of(2L, 1L), ids(index.search("laptop", null, 10)));
+	}
+
+	@Test
+	void everyTokenHasToMatch() {
+		ProductSearchIndex index = index(
+				product(1L, "Red shirt", "Apparel", null),
+				product(2L, "Red mug", "Kitchen", null));
+
+		assertEquals(List.of(1L), ids(index.search("red shirt", null, 10)));
+		assertTrue(index.search("red kettle", null, 10).isEmpty());
+	}
+
+	@Test
+	void pagesContinueFromTheLastHitEvenWhenItIsGone() {
+		ProductSearchIndex index = index(
+				product(1L, "Lamp", "Home", null),
+				product(2L, "Lamp", "Home", null),
+				product(3L, "Lamp", "Home", null),
+				product(4L, "Lamp", "Home", null));
+
+		List<ProductSearchIndex.Hit> first = index.search("lamp", null, 2);
+		assertEquals(List.of(1L, 2L), ids(first));
+		ProductSearchIndex.Hit last = first.get(1);
+		SearchCursor cursor = SearchCursor.parse(new SearchCursor(last.score(), last.product().getId()).toString());
+
+		// Removing hits on the earlier page must not shift the next one
+		index.remove(1L);
+		index.remove(2L);
+
+		assertEquals(List.of(3L, 4L), ids(index.search("lamp", cursor, 2)));
+	}
+
+	@Test
+	void scanSkipsProductsTheWritePathsChangedMeanwhile() {
+		ProductStreamRepository rows = mock(ProductStreamRepository.class);
+		ProductSearchIndex index = new ProductSearchIndex(rows);
+		doAnswer(invocation -> {
+			Consumer<Product> consumer = invocation.getArgument(1);
+			consumer.accept(product(1L, "Kettle", "Kitchen", null));
+			// Renamed and deleted while the scan is between rows; the scan's copies are stale
+			index.add(product(2L, "Teapot", "Kitchen", null));
+			index.remove(3L);
+			consumer.accept(product(2L, "Kettle", "Kitchen", null));
+			consumer.accept(product(3L, "Kettle", "Kitchen", null));
+			return null;
+		}).when(rows).forEach(isNull(), any());
+
+		index.build();
+
+		assertTrue(index.isReady());
+		assertEquals(List.of(1L), ids(index.search("kettle", null, 10)));
+		assertEquals(List.of(2L), ids(index.search("teapot", null, 10)));
+	}
+
+	private static ProductSearchIndex index(Product... products) {
+		ProductStreamRepository rows = mock(ProductStreamRepository.class);
+		doAnswer(invocation -> {
+			Consumer<Product> consumer = invocation.getArgument(1);
+			for (Product product : products) {
+				consumer.accept(product);
+			}
+			return null;
+		}).when(rows).forEach(isNull(), any());
+		ProductSearchIndex index = new ProductSearchIndex(rows);
+		index.build();
+		return index;
+	}
+
+	private static Product product(Long id, String name, String category, String description) {
+		return Product.builder().id(id).name(name).category(category).description(description).stock(1).build();
+	}
+
+	private static List<Long> ids(List<ProductSearchIndex.Hit> hits) {
+		return hits.stream().map(hit -> hit.product().getId()).toList();
+	}
+}
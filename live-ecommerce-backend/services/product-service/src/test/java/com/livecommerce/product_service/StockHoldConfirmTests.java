@@ -0,0 +1,64 @@
+package com.livecommerce.product_service;
+
+import com.livecommerce.product.domain.StockHold;
+import com.livecommerce.product.domain.StockHoldStatus;
+import com.livecommerce.product.repository.StockHoldRepository;
+import com.livecommerce.product.stock.StockHolds;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StockHoldConfirmTests {
+
+	private StockHoldRepository stockHoldRepository;
+	private StockHolds stockHolds;
+
+	@BeforeEach
+	void setUp() {
+		stockHoldRepository = mock(StockHoldRepository.class);
+		stockHolds = new StockHolds(stockHoldRepository, null, null, null, null, null, null, null, null,
+				mock(PlatformTransactionManager.class), 100, 900, 3600);
+	}
+
+	@Test
+	void confirmsAnActiveHold() {
+		when(stockHoldRepository.confirm(eq("h1"), any())).thenReturn(1);
+
+		assertTrue(stockHolds.confirm("h1"));
+	}
+
+	@Test
+	void confirmingAConfirmedHoldAgainSucceeds() {
+		when(stockHoldRepository.confirm(eq("h1"), any())).thenReturn(0);
+		when(stockHoldRepository.findById("h1")).thenReturn(Optional.of(hold(StockHoldStatus.CONFIRMED)));
+
+		assertTrue(stockHolds.confirm("h1"));
+	}
+
+	@Test
+	void expiredReleasedAndUnknownHoldsCannotBeConfirmed() {
+		when(stockHoldRepository.confirm(any(), any())).thenReturn(0);
+		when(stockHoldRepository.findById("expired")).thenReturn(Optional.of(hold(StockHoldStatus.EXPIRED)));
+		when(stockHoldRepository.findById("released")).thenReturn(Optional.of(hold(StockHoldStatus.RELEASED)));
+		when(stockHoldRepository.findById("unknown")).thenReturn(Optional.empty());
+
+		assertFalse(stockHolds.confirm("expired"));
+		assertFalse(stockHolds.confirm("released"));
+		assertFalse(stockHolds.confirm("unknown"));
+	}
+
+	private static StockHold hold(StockHoldStatus status) {
+		StockHold hold = new StockHold();
+		hold.setStatus(status);
+		return hold;
+	}
+}
@@ -0,0 +1,89 @@
+package com.livecommerce.product_service;
+
+import com.livecommerce.product.cache.ProductCache;
+import com.livecommerce.product.domain.StockHold;
+import com.livecommerce.product.domain.StockHoldLine;
+import com.livecommerce.product.domain.StockHoldStatus;
+import com.livecommerce.product.events.ProductEventOutbox;
+import com.livecommerce.product.facets.CategoryFacets;
+import com.livecommerce.product.live.LiveProductsSnapshot;
+import com.livecommerce.product.live.StockTicker;
+import com.livecommerce.product.repository.ProductRepository;
+import com.livecommerce.product.repository.StockHoldRepository;
+import com.livecommerce.product.search.ProductSearchIndex;
+import com.livecommerce.product.stock.StockHolds;
+import com.livecommerce.product.stock.StockLedger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StockHoldReleaseTests {
+
+	private StockHoldRepository stockHoldRepository;
+	private ProductRepository productRepository;
+	private StockLedger stockLedger;
+	private ProductCache productCache;
+	private StockHolds stockHolds;
+
+	@BeforeEach
+	void setUp() {
+		stockHoldRepository = mock(StockHoldRepository.class);
+		productRepository = mock(ProductRepository.class);
+		stockLedger = mock(StockLedger.class);
+		productCache = mock(ProductCache.class);
+		stockHolds = new StockHolds(stockHoldRepository, productRepository, stockLedger, mock(ProductEventOutbox.class),
+				productCache, mock(ProductSearchIndex.class), mock(CategoryFacets.class), mock(LiveProductsSnapshot.class),
+				mock(StockTicker.class), mock(PlatformTransactionManager.class), 100, 900, 3600);
+	}
+
+	@Test
+	void liveStockGoesBackOnTheRowBeforeTheLedgerCounter() {
+		hold("h1", new StockHoldLine(1L, 2), new StockHoldLine(2L, 3));
+		when(stockLedger.isTracked(1L)).thenReturn(true);
+
+		assertTrue(stockHolds.release("h1"));
+
+		// The row carries the units, so a crash before restocked() loses nothing
+		InOrder order = inOrder(productRepository, stockLedger);
+		order.verify(productRepository).incrementStock(1L, 2);
+		order.verify(stockLedger).restocked(1L, 2);
+		verify(productRepository).incrementStock(2L, 3);
+		verify(stockLedger, never()).restocked(2L, 3);
+		verify(stockLedger, never()).release(anyLong(), anyInt());
+		verify(productCache).invalidate(2L);
+	}
+
+	@Test
+	void settledHoldGivesNothingBack() {
+		when(stockHoldRepository.finish(any(), any())).thenReturn(0);
+
+		assertFalse(stockHolds.release("h1"));
+
+		verify(productRepository, never()).incrementStock(anyLong(), anyInt());
+		verify(stockLedger, never()).restocked(anyLong(), anyInt());
+	}
+
+	private void hold(String id, StockHoldLine... lines) {
+		StockHold hold = new StockHold();
+		hold.setId(id);
+		hold.setStatus(StockHoldStatus.RELEASED);
+		hold.setLines(List.of(lines));
+		when(stockHoldRepository.finish(id, StockHoldStatus.RELEASED)).thenReturn(1);
+		when(stockHoldRepository.findById(id)).thenReturn(Optional.of(hold));
+	}
+}
@@ -0,0 +1,74 @@
+package com.livecommerce.product_service;
+
+import com.livecommerce.product.stock.HierarchicalTimingWheel;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StockHoldWheelBenchmarkTests {
+
+	private static final long TICK = 100;
+
+	@Test
+	void expiresEveryHoldWithinOneTickOfItsDeadline() {
+		HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(TICK, 6, 4, 0);
+		Random random = new Random(17);
+		int holds = 100_000;
+		// Deadlines spread over two hours, crossing several level wraps
+		long[] deadlines = new long[holds];
+		for (int i = 0; i < holds; i++) {
+			deadlines[i] = 1 + random.nextLong(7_200_000);
+			wheel.add((long) i, deadlines[i]);
+		}
+
+		int expired = 0;
+		for (long now = TICK; now <= 7_200_000 + TICK; now += TICK) {
+			for (Long hold : wheel.advance(now)) {
+				long deadline = deadlines[hold.intValue()];
+				assertTrue(deadline <= now, "expired early");
+				assertTrue(now - deadline < 2 * TICK, "expired late");
+				expired++;
+			}
+		}
+		assertEquals(holds, expired);
+		assertEquals(0, wheel.size());
+	}
+
+	@Test
+	void refusesDeadlinesAlreadyDue() {
+		HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK, 6, 4, 10_000);
+		assertFalse(wheel.add("late", 9_000));
+		assertTrue(wheel.add("next", 10_001));
+		assertEquals(List.of("next"), wheel.advance(10_100));
+	}
+
+	@Test
+	@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+	void millionsOfHolds() {
+		int holds = 2_000_000;
+		HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(TICK, 6, 4, 0);
+		Random random = new Random(42);
+
+		long started = System.nanoTime();
+		for (int i = 0; i < holds; i++) {
+			// 15 minute checkout TTL with some jitter
+			wheel.add(i, 900_000 + random.nextLong(60_000));
+		}
+		long added = System.nanoTime();
+		int expired = 0;
+		for (long now = TICK; now <= 960_000 + TICK; now += TICK) {
+			expired += wheel.advance(now).size();
+		}
+		long finished = System.nanoTime();
+
+		assertEquals(holds, expired);
+		System.out.printf("add: %d holds in %d ms%n", holds, (added - started) / 1_000_000);
+		System.out.printf("expire: %d holds in %d ms%n", holds, (finished - added) / 1_000_000);
+	}
+}
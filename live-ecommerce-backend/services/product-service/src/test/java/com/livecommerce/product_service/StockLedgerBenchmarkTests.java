@@ -0,0 +1,129 @@
+package com.livecommerce.product_service;
+
+import com.livecommerce.product.stock.StockJournal;
+import com.livecommerce.product.stock.StripedStockCounter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StockLedgerBenchmarkTests {
+
+	private static final int THREADS = Runtime.getRuntime().availableProcessors() * 2;
+
+	@TempDir
+	Path journalDir;
+
+	@Test
+	void neverOversellsUnderContention() throws Exception {
+		StripedStockCounter counter = new StripedStockCounter(8, 10_000);
+		AtomicLong sold = new AtomicLong();
+		CountDownLatch start = new CountDownLatch(1);
+		List<Thread> buyers = new ArrayList<>();
+		for (int i = 0; i < THREADS; i++) {
+			int quantity = 1 + (i % 3);
+			buyers.add(Thread.ofPlatform().start(() -> {
+				await(start);
+				while (counter.available() > 0) {
+					if (counter.tryDecrement(quantity)) {
+						sold.addAndGet(quantity);
+					}
+				}
+			}));
+		}
+		start.countDown();
+		for (Thread buyer : buyers) {
+			buyer.join();
+		}
+
+		assertEquals(0, counter.available());
+		assertEquals(10_000, sold.get());
+	}
+
+	@Test
+	void journalReplaysEveryAcceptedDecrement() throws Exception {
+		try (StockJournal journal = new StockJournal(journalDir, false)) {
+			journal.start(1);
+			for (int i = 0; i < 1_000; i++) {
+				journal.append(42L, 2);
+			}
+			journal.rotate();
+			journal.append(7L, 1);
+
+			assertEquals(Map.of(42L, 2_000L), journal.read(List.of(1L)));
+			assertEquals(List.of(1L, 2L), journal.segments());
+		}
+	}
+
+	// mvn test -Dtest=StockLedgerBenchmarkTests -Dbenchmark=true
+	@Test
+	@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+	void hotSkuDecrementsPerSecond() throws Exception {
+		long seconds = 5;
+		StripedStockCounter counter = new StripedStockCounter(
+				Runtime.getRuntime().availableProcessors(), Long.MAX_VALUE / 2);
+		AtomicLong single = new AtomicLong(Long.MAX_VALUE / 2);
+
+		long baseline = run(seconds, () -> {
+			long current;
+			do {
+				current = single.get();
+			} while (current < 1 || !single.compareAndSet(current, current - 1));
+		});
+		long striped = run(seconds, () -> counter.tryDecrement(1));
+
+		try (StockJournal journal = new StockJournal(journalDir, false)) {
+			journal.start(1);
+			long journaled = run(seconds, () -> {
+				counter.tryDecrement(1);
+				try {
+					journal.append(1L, 1);
+				} catch (Exception e) {
+					throw new IllegalStateException(e);
+				}
+			});
+
+			System.out.printf("threads=%d single-CAS=%,d/s striped=%,d/s striped+journal=%,d/s%n",
+					THREADS, baseline / seconds, striped / seconds, journaled / seconds);
+		}
+	}
+
+	private static long run(long seconds, Runnable decrement) throws InterruptedException {
+		AtomicBoolean running = new AtomicBoolean(true);
+		AtomicLong total = new AtomicLong();
+		List<Thread> threads = new ArrayList<>();
+		for (int i = 0; i < THREADS; i++) {
+			threads.add(Thread.ofPlatform().start(() -> {
+				long ops = 0;
+				while (running.get()) {
+					decrement.run();
+					ops++;
+				}
+				total.addAndGet(ops);
+			}));
+		}
+		Thread.sleep(seconds * 1_000);
+		running.set(false);
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		return total.get();
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
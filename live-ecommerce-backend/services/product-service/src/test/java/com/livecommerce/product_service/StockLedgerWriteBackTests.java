@@ -0,0 +1,92 @@
+package com.livecommerce.product_service;
+
+import com.livecommerce.product.domain.Product;
+import com.livecommerce.product.events.ProductEventOutbox;
+import com.livecommerce.product.repository.ProductRepository;
+import com.livecommerce.product.repository.StockLedgerCheckpointRepository;
+import com.livecommerce.product.stock.StockLedger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StockLedgerWriteBackTests {
+
+	@TempDir
+	Path journalDir;
+
+	private JdbcTemplate jdbcTemplate;
+	private StockLedger stockLedger;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		ProductRepository productRepository = mock(ProductRepository.class);
+		when(productRepository.findByLiveTrue()).thenReturn(List.of(
+				Product.builder().id(1L).name("p1").live(true).stock(10).build()));
+		StockLedgerCheckpointRepository checkpoints = mock(StockLedgerCheckpointRepository.class);
+		when(checkpoints.findById(anyString())).thenReturn(Optional.empty());
+		jdbcTemplate = mock(JdbcTemplate.class);
+		stockLedger = new StockLedger(productRepository, checkpoints, jdbcTemplate, mock(ProductEventOutbox.class),
+				mock(PlatformTransactionManager.class), journalDir.toString(), false, 4);
+		stockLedger.start();
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		stockLedger.stop();
+	}
+
+	@Test
+	void writesBackOnlyWhereTheRowHasTheStock() {
+		when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1});
+		stockLedger.take(1L, 3);
+
+		stockLedger.flush();
+
+		ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.captor();
+		verify(jdbcTemplate).batchUpdate(contains("stock >= ?"), rows.capture());
+		assertArrayEquals(new Object[]{3L, 1L, 3L}, rows.getValue().get(0));
+		verify(jdbcTemplate, never()).update(contains("stock = 0"), eq(1L));
+	}
+
+	@Test
+	void driftIsReportedInsteadOfClampedSilently() {
+		when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{0});
+		when(jdbcTemplate.queryForList(anyString(), eq(Integer.class), eq(1L))).thenReturn(List.of(1));
+		stockLedger.take(1L, 3);
+
+		stockLedger.flush();
+
+		verify(jdbcTemplate).update(contains("stock = 0"), eq(1L));
+	}
+
+	@Test
+	void deletedProductIsNotDrift() {
+		when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{0});
+		when(jdbcTemplate.queryForList(anyString(), eq(Integer.class), eq(1L))).thenReturn(List.of());
+		stockLedger.take(1L, 3);
+
+		stockLedger.flush();
+
+		verify(jdbcTemplate, never()).update(contains("stock = 0"), eq(1L));
+		assertEquals(7L, stockLedger.available(1L));
+	}
+}
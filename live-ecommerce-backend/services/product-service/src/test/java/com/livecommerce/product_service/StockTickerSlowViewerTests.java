@@ -0,0 +1,146 @@
+package com.livecommerce.product_service;
+
+import com.livecommerce.product.cache.ProductCache;
+import com.livecommerce.product.live.LiveProductsSnapshot;
+import com.livecommerce.product.live.StockTicker;
+import com.livecommerce.product.repository.ProductRepository;
+import com.livecommerce.product.stock.StockLedger;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.catalina.Context;
+import org.apache.catalina.startup.Tomcat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// A viewer on a real Tomcat connection that stops reading after the response headers
+class StockTickerSlowViewerTests {
+
+	private static final List<Long> PRODUCTS = LongStream.rangeClosed(1, 2_000).boxed().toList();
+
+	private SimpleMeterRegistry registry;
+	private StockTicker ticker;
+	private Tomcat tomcat;
+	private AnnotationConfigWebApplicationContext web;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		StockLedger stockLedger = mock(StockLedger.class);
+		when(stockLedger.available(anyLong())).thenReturn(5L);
+		registry = new SimpleMeterRegistry();
+		// 2 s stall timeout, long enough for a few ticks to reach the stuck viewer on a busy machine;
+		// Tomcat below only gives up on the write after a minute
+		ticker = new StockTicker(stockLedger, mock(ProductCache.class), mock(ProductRepository.class),
+				mock(LiveProductsSnapshot.class), registry, 10, 2_000, 20);
+
+		web = new AnnotationConfigWebApplicationContext();
+		web.register(Mvc.class);
+		web.addBeanFactoryPostProcessor(beans -> beans.registerSingleton("stockTicker", ticker));
+		tomcat = new Tomcat();
+		tomcat.setBaseDir(Files.createTempDirectory("ticker-tomcat").toString());
+		tomcat.setPort(0);
+		tomcat.getConnector().setProperty("connectionTimeout", "60000");
+		tomcat.getConnector().setProperty("socket.txBufSize", "4096");
+		Context context = tomcat.addContext("", null);
+		Tomcat.addServlet(context, "dispatcher", new DispatcherServlet(web)).setAsyncSupported(true);
+		context.addServletMappingDecoded("/", "dispatcher");
+		tomcat.start();
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		ticker.stop();
+		tomcat.stop();
+		tomcat.destroy();
+		web.close();
+	}
+
+	@Test
+	void slowViewerLosesOldFramesAndNeverBlocksTheTick() throws Exception {
+		try (Socket client = new Socket()) {
+			client.setReceiveBufferSize(4096);
+			client.connect(new InetSocketAddress("127.0.0.1", tomcat.getConnector().getLocalPort()));
+			OutputStream out = client.getOutputStream();
+			out.write("GET /ticker HTTP/1.1\r\nHost: localhost\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+			out.flush();
+			readHeaders(client.getInputStream());
+			// ...and never reads again
+
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+			while (viewers() > 0 && System.nanoTime() < deadline) {
+				PRODUCTS.forEach(ticker::stockChanged);
+				// The scheduler thread: must return even while the viewer's write is stuck
+				CompletableFuture<Void> tick = CompletableFuture.runAsync(ticker::tick);
+				tick.get(10, TimeUnit.SECONDS);
+				Thread.sleep(50);
+			}
+
+			assertEquals(0, viewers(), "stalled viewer should be disconnected");
+			assertTrue(registry.get("product.stock.ticker.replaced").counter().count() > 0,
+					"frames for the stalled viewer should be replaced, not queued");
+		}
+	}
+
+	private double viewers() {
+		return registry.get("product.stock.ticker.viewers").gauge().value();
+	}
+
+	private static void readHeaders(InputStream in) throws Exception {
+		int matched = 0;
+		byte[] end = "\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+		while (matched < end.length) {
+			int b = in.read();
+			if (b < 0) {
+				throw new IllegalStateException("connection closed before the headers");
+			}
+			matched = b == end[matched] ? matched + 1 : (b == end[0] ? 1 : 0);
+		}
+	}
+
+	@Configuration
+	@EnableWebMvc
+	static class Mvc {
+		@Bean
+		TickerEndpoint tickerEndpoint(StockTicker stockTicker) {
+			return new TickerEndpoint(stockTicker);
+		}
+	}
+
+	@RestController
+	static class TickerEndpoint {
+		private final StockTicker stockTicker;
+
+		TickerEndpoint(StockTicker stockTicker) {
+			this.stockTicker = stockTicker;
+		}
+
+		@GetMapping("/ticker")
+		SseEmitter ticker() {
+			return stockTicker.subscribe(PRODUCTS, false);
+		}
+	}
+}
@@ -0,0 +1,90 @@
+package com.livecommerce.product_service;
+
+import com.livecommerce.product.stock.StripedStockCounter;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StripedStockCounterTests {
+
+	@Test
+	void spanningBuyersAreServedWheneverStockSuffices() throws Exception {
+		// 100 units over 64 stripes: every buyer wants more than any stripe holds, exactly two can be served
+		int buyers = 4;
+		int rounds = 2_000;
+		StripedStockCounter counter = new StripedStockCounter(64, 100);
+		AtomicInteger served = new AtomicInteger();
+		AtomicInteger round = new AtomicInteger();
+		AtomicInteger done = new AtomicInteger();
+
+		Thread[] threads = new Thread[buyers];
+		for (int i = 0; i < buyers; i++) {
+			threads[i] = Thread.ofPlatform().start(() -> {
+				for (int r = 1; r <= rounds; r++) {
+					// Busy-wait instead of a barrier so all buyers hit the counter at nearly the same moment
+					while (round.get() < r) {
+						Thread.yield();
+					}
+					if (counter.tryDecrement(40)) {
+						served.incrementAndGet();
+					}
+					done.incrementAndGet();
+				}
+			});
+		}
+		int badRounds = 0;
+		for (int r = 1; r <= rounds; r++) {
+			counter.reset(100);
+			served.set(0);
+			done.set(0);
+			round.set(r);
+			while (done.get() < buyers) {
+				Thread.yield();
+			}
+			if (served.get() != 2 || counter.available() != 20) {
+				badRounds++;
+			}
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		assertEquals(0, badRounds);
+	}
+
+	@Test
+	void mixedBuyersNeitherLoseNorInventStock() throws Exception {
+		StripedStockCounter counter = new StripedStockCounter(8, 5_000);
+		CyclicBarrier start = new CyclicBarrier(8);
+		AtomicInteger sold = new AtomicInteger();
+		Thread[] buyers = new Thread[8];
+		for (int i = 0; i < buyers.length; i++) {
+			// Small quantities stay on the fast path, large ones span stripes
+			int quantity = i % 2 == 0 ? 1 : 700;
+			buyers[i] = Thread.ofPlatform().start(() -> {
+				await(start);
+				for (int n = 0; n < 2_000; n++) {
+					if (counter.tryDecrement(quantity)) {
+						sold.addAndGet(quantity);
+					}
+				}
+			});
+		}
+		for (Thread buyer : buyers) {
+			buyer.join();
+		}
+
+		assertEquals(5_000, sold.get() + counter.available());
+	}
+
+	private static void await(CyclicBarrier barrier) {
+		try {
+			barrier.await();
+		} catch (Exception e) {
+			throw new RuntimeException(e);
+		}
+	}
+}
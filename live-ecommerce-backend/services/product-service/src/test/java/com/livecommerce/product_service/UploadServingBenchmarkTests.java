@@ -0,0 +1,186 @@
+package com.livecommerce.product_service;
+
+import com.livecommerce.product.storage.ImageStorage;
+import com.livecommerce.product.storage.UploadFileServer;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.catalina.Context;
+import org.apache.catalina.startup.Tomcat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+// UploadFileServer behind a real Tomcat NIO connector, so large bodies take the sendfile path
+class UploadServingBenchmarkTests {
+
+	private static final String NAME = "ab/cd/" + "ab".repeat(32) + ".jpg";
+
+	@TempDir
+	Path uploadDir;
+
+	private byte[] content;
+	private Tomcat tomcat;
+	private final HttpClient http = HttpClient.newHttpClient();
+
+	@BeforeEach
+	void setUp() throws Exception {
+		content = new byte[256 * 1024];
+		new Random(1).nextBytes(content);
+		Path file = uploadDir.resolve(NAME);
+		Files.createDirectories(file.getParent());
+		Files.write(file, content);
+		Files.write(file.resolveSibling(file.getFileName() + ".gz"), new byte[]{1, 2, 3});
+
+		UploadFileServer server = new UploadFileServer(new ImageStorage(uploadDir.toString()), new int[]{320, 640, 1280}, 10);
+		ResourceHttpRequestHandler resourceHandler = new ResourceHttpRequestHandler();
+		resourceHandler.setLocations(List.of(new FileSystemResource(uploadDir.toString() + "/")));
+		resourceHandler.afterPropertiesSet();
+
+		tomcat = new Tomcat();
+		tomcat.setBaseDir(Files.createTempDirectory("uploads-tomcat").toString());
+		tomcat.setPort(0);
+		Context context = tomcat.addContext("", null);
+		Tomcat.addServlet(context, "uploads", new HttpServlet() {
+			@Override
+			protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+				server.serve(request, response);
+			}
+		});
+		context.addServletMappingDecoded("/uploads/*", "uploads");
+		// Spring's static resource handler on the same connector, for comparison
+		Tomcat.addServlet(context, "static", new HttpServlet() {
+			@Override
+			protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+				request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, request.getPathInfo().substring(1));
+				try {
+					resourceHandler.handleRequest(request, response);
+				} catch (Exception e) {
+					throw new IOException(e);
+				}
+			}
+		});
+		context.addServletMappingDecoded("/static/*", "static");
+		tomcat.start();
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		tomcat.stop();
+		tomcat.destroy();
+	}
+
+	@Test
+	void servesRangesAndRevalidates() throws Exception {
+		HttpResponse<byte[]> full = get("/uploads/" + NAME);
+		assertEquals(200, full.statusCode());
+		assertEquals("public, max-age=31536000, immutable", full.headers().firstValue(HttpHeaders.CACHE_CONTROL).orElse(null));
+		assertArrayEquals(content, full.body());
+
+		HttpResponse<byte[]> partial = get("/uploads/" + NAME, HttpHeaders.RANGE, "bytes=100-199");
+		assertEquals(206, partial.statusCode());
+		assertEquals("bytes 100-199/" + content.length, partial.headers().firstValue(HttpHeaders.CONTENT_RANGE).orElse(null));
+		assertEquals(100, partial.body().length);
+		assertEquals(content[100], partial.body()[0]);
+
+		assertEquals(416, get("/uploads/" + NAME, HttpHeaders.RANGE, "bytes=" + content.length + "-").statusCode());
+		String etag = full.headers().firstValue(HttpHeaders.ETAG).orElseThrow();
+		assertEquals(304, get("/uploads/" + NAME, HttpHeaders.IF_NONE_MATCH, etag).statusCode());
+	}
+
+	@Test
+	void precompressedSiblingFollowsQValues() throws Exception {
+		assertEquals("gzip", encoding("gzip, deflate"));
+		assertEquals("gzip", encoding("*"));
+		assertEquals("gzip", encoding("br;q=1.0, gzip;q=0.5"));
+		assertEquals(null, encoding("gzip;q=0"));
+		assertEquals(null, encoding("gzip;q=0.000, *"));
+		assertEquals(null, encoding("*;q=0"));
+		assertEquals(null, encoding("identity"));
+		// Not a gzip token, just contains the letters
+		assertEquals(null, encoding("x-gzip-not"));
+	}
+
+	// mvn test -Dtest=UploadServingBenchmarkTests -Dbenchmark=true
+	@Test
+	@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+	void requestsPerSecondAgainstResourceHandler() throws Exception {
+		String etag = get("/uploads/" + NAME).headers().firstValue(HttpHeaders.ETAG).orElseThrow();
+		for (String mode : List.of("full", "range", "304")) {
+			long resource = run("/static/" + NAME, mode, etag);
+			long upload = run("/uploads/" + NAME, mode, etag);
+			System.out.printf("%-5s resource-handler=%,d/s upload-server=%,d/s%n", mode, resource, upload);
+		}
+	}
+
+	private String encoding(String acceptEncoding) throws Exception {
+		HttpResponse<byte[]> response = get("/uploads/" + NAME, HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+		assertEquals(200, response.statusCode());
+		String encoding = response.headers().firstValue(HttpHeaders.CONTENT_ENCODING).orElse(null);
+		assertEquals(encoding == null ? content.length : 3, response.body().length);
+		return encoding;
+	}
+
+	private HttpResponse<byte[]> get(String path, String... headers) throws Exception {
+		HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + tomcat.getConnector().getLocalPort() + path));
+		for (int i = 0; i < headers.length; i += 2) {
+			request.header(headers[i], headers[i + 1]);
+		}
+		return http.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+	}
+
+	// Requests per second from 8 concurrent clients over keep-alive connections
+	private long run(String path, String mode, String etag) throws Exception {
+		String[] headers = switch (mode) {
+			case "range" -> new String[]{HttpHeaders.RANGE, "bytes=0-16383"};
+			case "304" -> new String[]{HttpHeaders.IF_NONE_MATCH, etag};
+			default -> new String[0];
+		};
+		for (int i = 0; i < 500; i++) {
+			get(path, headers);
+		}
+		AtomicLong requests = new AtomicLong();
+		long deadline = System.nanoTime() + 3_000_000_000L;
+		try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+			List<Future<?>> running = new ArrayList<>();
+			for (int c = 0; c < 8; c++) {
+				running.add(clients.submit(() -> {
+					while (System.nanoTime() < deadline) {
+						assertFalse(get(path, headers).statusCode() >= 400);
+						requests.incrementAndGet();
+					}
+					return null;
+				}));
+			}
+			for (Future<?> future : running) {
+				future.get();
+			}
+		}
+		return requests.get() / 3;
+	}
+}
@@ -1,11 +1,14 @@
 package com.example.reservation_service;
 
+import com.example.reservation_service.client.ProductLoadBalancerConfiguration;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClient;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 
 @SpringBootApplication
 @EnableFeignClients
+@LoadBalancerClient(name = "product-service", configuration = ProductLoadBalancerConfiguration.class)
 public class ReservationServiceApplication {
 
 	public static void main(String[] args) {
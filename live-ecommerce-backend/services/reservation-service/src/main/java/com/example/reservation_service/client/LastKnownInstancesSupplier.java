@@ -0,0 +1,45 @@
+package com.example.reservation_service.client;
+
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.DelegatingServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Flux;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Keeps calls going on the last known instances while the registry is down or answers with an empty list.
+// Until discovery has returned anything at all, the configured fallback URLs are used
+public class LastKnownInstancesSupplier extends DelegatingServiceInstanceListSupplier {
+
+    private final AtomicReference<List<ServiceInstance>> lastKnown;
+
+    public LastKnownInstancesSupplier(ServiceInstanceListSupplier delegate, List<URI> fallbackUris) {
+        super(delegate);
+        List<ServiceInstance> fallback = new ArrayList<>();
+        for (URI uri : fallbackUris) {
+            fallback.add(new DefaultServiceInstance(delegate.getServiceId() + "-fallback-" + fallback.size(),
+                    delegate.getServiceId(), uri.getHost(), uri.getPort(), "https".equals(uri.getScheme())));
+        }
+        this.lastKnown = new AtomicReference<>(List.copyOf(fallback));
+    }
+
+    @Override
+    public Flux<List<ServiceInstance>> get() {
+        return getDelegate().get()
+                .map(this::remember)
+                .onErrorResume(e -> Flux.just(lastKnown.get()))
+                .switchIfEmpty(Flux.defer(() -> Flux.just(lastKnown.get())));
+    }
+
+    private List<ServiceInstance> remember(List<ServiceInstance> instances) {
+        if (instances.isEmpty()) {
+            return lastKnown.get();
+        }
+        lastKnown.set(instances);
+        return instances;
+    }
+}
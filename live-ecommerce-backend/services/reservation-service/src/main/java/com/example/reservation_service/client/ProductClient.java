@@ -1,21 +1,39 @@
 package com.example.reservation_service.client;
 
+import com.example.reservation_service.dto.ProductBatchDTO;
 import com.example.reservation_service.dto.ProductDTO;
+import com.example.reservation_service.dto.StockReservationLine;
+import com.example.reservation_service.dto.StockReservationResult;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @FeignClient(
         name = "product-service",
-        url = "http://localhost:8082/api/products"
+        path = "/api/products",
+        configuration = ProductClientConfiguration.class
 )
 public interface ProductClient {
 
     @GetMapping("/{id}")
     ProductDTO getProductById(@PathVariable("id") Long id);
 
+    // Found products come back in request order, unknown ids in missingIds
+    @GetMapping
+    ProductBatchDTO getProductsByIds(@RequestParam("ids") List<Long> ids);
+
+    // Same lookup with the ids in the body, for sets too long for a URL
+    @PostMapping("/batch")
+    ProductBatchDTO getProductsByIdsPost(@RequestBody List<Long> ids);
+
     @PutMapping("/{id}/reduce-stock")
     void reduceStock(
             @PathVariable("id") Long id,
             @RequestParam("quantity") Integer quantity
     );
+
+    // All lines are reserved in one transaction, a 409 means nothing was reserved
+    @PostMapping("/stock/reservations")
+    StockReservationResult reserveStock(@RequestBody List<StockReservationLine> lines);
 }
@@ -0,0 +1,41 @@
+package com.example.reservation_service.client;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps retries and hedges to a share of normal traffic, so a struggling product-service is
+ * not hit with a retry storm on top of its load. Every first attempt deposits percent/100 of
+ * a token, every retry or hedge withdraws a whole one; the balance never goes above
+ * maxTokens. Lock-free, tokens are kept in thousandths.
+ */
+public class RetryBudget {
+
+    private static final long UNIT = 1_000;
+
+    private final long deposit;
+    private final long max;
+    private final AtomicLong balance;
+
+    public RetryBudget(int percent, int maxTokens) {
+        this.deposit = UNIT * percent / 100;
+        this.max = UNIT * maxTokens;
+        // Start full so retries work right after startup
+        this.balance = new AtomicLong(max);
+    }
+
+    public void deposit() {
+        balance.accumulateAndGet(deposit, (current, amount) -> Math.min(max, current + amount));
+    }
+
+    public boolean tryWithdraw() {
+        while (true) {
+            long current = balance.get();
+            if (current < UNIT) {
+                return false;
+            }
+            if (balance.compareAndSet(current, current - UNIT)) {
+                return true;
+            }
+        }
+    }
+}
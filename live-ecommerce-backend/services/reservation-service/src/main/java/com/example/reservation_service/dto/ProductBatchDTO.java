@@ -0,0 +1,11 @@
+package com.example.reservation_service.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ProductBatchDTO {
+    private List<ProductDTO> products;
+    private List<Long> missingIds;
+}
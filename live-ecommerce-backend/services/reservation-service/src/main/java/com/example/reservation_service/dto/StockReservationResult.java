@@ -0,0 +1,18 @@
+package com.example.reservation_service.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class StockReservationResult {
+    private boolean reserved;
+    private List<LineResult> lines;
+
+    @Data
+    public static class LineResult {
+        private Long productId;
+        private Integer quantity;
+        private String status;   // RESERVED, INSUFFICIENT_STOCK, NOT_FOUND, INVALID_QUANTITY, ROLLED_BACK
+    }
+}
@@ -1,7 +1,7 @@
 package com.example.reservation_service.service.impl;
 
 import com.example.reservation_service.client.ProductClient;
-import com.example.reservation_service.dto.ProductDTO;
+import com.example.reservation_service.dto.ProductBatchDTO;
 import com.example.reservation_service.dto.ReservationRequest;
 import com.example.reservation_service.entity.Reservation;
 import com.example.reservation_service.repository.ReservationRepository;
@@ -10,6 +10,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;  
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
@@ -30,6 +31,7 @@ public class ReservationServiceImpl implements ReservationService {
         
         // Handle null/empty productIds
         if (request.getProductIds() != null && !request.getProductIds().isEmpty()) {
+            checkProductsExist(request.getProductIds());
             r.setProductIds(String.join(",", request.getProductIds()));
         }
         
@@ -44,4 +46,20 @@ public class ReservationServiceImpl implements ReservationService {
     public List<Reservation> getAllReservations() {
         return repo.findAll();
     }
+
+    // 🔹 One batch lookup for all reserved products; unknown ids fail the reservation
+    private void checkProductsExist(List<String> productIds) {
+        List<Long> ids = new ArrayList<>(productIds.size());
+        for (String productId : productIds) {
+            try {
+                ids.add(Long.valueOf(productId.trim()));
+            } catch (NumberFormatException e) {
+                throw new RuntimeException("Invalid product id: " + productId);
+            }
+        }
+        ProductBatchDTO batch = productClient.getProductsByIds(ids);
+        if (batch.getMissingIds() != null && !batch.getMissingIds().isEmpty()) {
+            throw new RuntimeException("Product not found: " + batch.getMissingIds());
+        }
+    }
 }
\ No newline at end of file
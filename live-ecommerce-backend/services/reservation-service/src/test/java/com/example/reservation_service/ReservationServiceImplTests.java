@@ -0,0 +1,78 @@
+package com.example.reservation_service;
+
+import com.example.reservation_service.client.ProductClient;
+import com.example.reservation_service.dto.ProductBatchDTO;
+import com.example.reservation_service.dto.ReservationRequest;
+import com.example.reservation_service.entity.Reservation;
+import com.example.reservation_service.repository.ReservationRepository;
+import com.example.reservation_service.service.impl.ReservationServiceImpl;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class ReservationServiceImplTests {
+
+	private final ReservationRepository repo = mock(ReservationRepository.class);
+	private final ProductClient productClient = mock(ProductClient.class);
+	private final ReservationServiceImpl service = new ReservationServiceImpl(repo, productClient);
+
+	@Test
+	void reservedProductsAreLookedUpInOneBatch() {
+		when(productClient.getProductsByIds(List.of(3L, 7L))).thenReturn(batch());
+		when(repo.save(any())).thenAnswer(call -> call.getArgument(0));
+
+		Reservation reservation = service.createReservation(request("3", " 7"));
+
+		assertEquals("3, 7", reservation.getProductIds());
+	}
+
+	@Test
+	void unknownProductFailsTheReservation() {
+		when(productClient.getProductsByIds(List.of(3L, 404L))).thenReturn(batch(404L));
+
+		assertThrows(RuntimeException.class, () -> service.createReservation(request("3", "404")));
+		verify(repo, never()).save(any());
+	}
+
+	@Test
+	void nonNumericProductIdIsRejectedWithoutACall() {
+		assertThrows(RuntimeException.class, () -> service.createReservation(request("abc")));
+		verify(productClient, never()).getProductsByIds(anyList());
+	}
+
+	@Test
+	void reservationWithoutProductsNeedsNoLookup() {
+		when(repo.save(any())).thenAnswer(call -> call.getArgument(0));
+
+		service.createReservation(request());
+
+		verifyNoInteractions(productClient);
+	}
+
+	private static ReservationRequest request(String... productIds) {
+		return ReservationRequest.builder()
+				.customerName("Asha")
+				.customerPhone("9999999999")
+				.productIds(List.of(productIds))
+				.date("2026-10-20")
+				.time("18:00")
+				.build();
+	}
+
+	private static ProductBatchDTO batch(Long... missing) {
+		ProductBatchDTO batch = new ProductBatchDTO();
+		batch.setProducts(List.of());
+		batch.setMissingIds(List.of(missing));
+		return batch;
+	}
+}